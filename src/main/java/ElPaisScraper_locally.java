@@ -1,7 +1,13 @@
+import utils.ArticleWindowReader;
+
+import com.google.gson.Gson;
+
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
@@ -10,11 +16,16 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.*;
 import java.util.logging.Formatter;
 
@@ -27,33 +38,68 @@ public class ElPaisScraper_locally {
     private static final int ARTICLE_COUNT = Integer.parseInt(CONFIG.getProperty("article.count", "5"));
     private static final String IMAGE_DIR = CONFIG.getProperty("image.directory", "downloads/images");
 
+    // Pipeline tuning: queue size between stages and number of workers for the I/O stages
+    private static final int QUEUE_CAPACITY = Integer.parseInt(CONFIG.getProperty("pipeline.queue.capacity", "4"));
+    private static final int TRANSLATE_WORKERS = Integer.parseInt(CONFIG.getProperty("pipeline.translate.workers", "4"));
+    private static final int IMAGE_WORKERS = Integer.parseInt(CONFIG.getProperty("pipeline.image.workers", "4"));
+
+    // Warm Chrome profile: keeps consent cookies, localStorage and the HTTP cache between runs
+    private static final boolean REUSE_PROFILE = Boolean.parseBoolean(CONFIG.getProperty("chrome.profile.reuse", "true"));
+    private static final String PROFILE_DIR = CONFIG.getProperty("chrome.profile.dir", "state/chrome-profile");
+    // Didomi injects its banner after the page loads, so a stored consent is only trusted once none shows up in this time
+    private static final Duration CONSENT_BANNER_GRACE = Duration.ofSeconds(3);
+    // Windowed mode: stream up to window.target articles through infinite scroll/pagination, a window at a time,
+    // to articles_<time>.jsonl. Only the first window.retain stay in memory for the report.
+    private static final boolean WINDOWED = Boolean.parseBoolean(CONFIG.getProperty("window.enabled", "false"));
+    private static final int WINDOW_TARGET = Integer.parseInt(CONFIG.getProperty("window.target", "1000"));
+    private static final int WINDOW_SIZE = Integer.parseInt(CONFIG.getProperty("window.size", "20"));
+    private static final long WINDOW_BUDGET_SECONDS = Long.parseLong(CONFIG.getProperty("window.budgetSeconds", "0"));
+    private static final int WINDOW_RETAIN = Integer.parseInt(CONFIG.getProperty("window.retain", "5"));
+    private static final long WINDOW_STEP_MILLIS = Long.parseLong(CONFIG.getProperty("window.stepMillis", "100"));
+    private static final long WINDOW_SETTLE_MILLIS = Long.parseLong(CONFIG.getProperty("window.settleMillis", "800"));
+    private static final long WINDOW_LOAD_MORE_SECONDS = Long.parseLong(CONFIG.getProperty("window.loadMoreSeconds", "10"));
+    private static final Gson GSON = new Gson();
+    // Written by the sink thread only
+    private static BufferedWriter articleStream;
+
+    // Set once the browser is known to hold the consent cookies (warm profile, or banner already accepted)
+    private static boolean consentGiven = false;
+
     private static final Logger LOGGER = Logger.getLogger(ElPaisScraper_locally.class.getName());
+    private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
     private static final List<ArticleData> scrapedArticles = new ArrayList<>();
-    private static int successCount = 0;
-    private static int failureCount = 0;
+    private static final Map<String, Integer> wordCount = new HashMap<>();
+    private static final AtomicInteger successCount = new AtomicInteger();
+    private static final AtomicInteger failureCount = new AtomicInteger();
+
+    // Marks the end of the stream flowing through the pipeline queues
+    private static final ArticleData END_OF_STREAM = new ArticleData();
 
     public static void main(String[] args) {
         //Setting up Logger
         setupLogger();
 
+        // Long-running mode: warm driver, scheduled scrapes, results served over HTTP
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            ScraperDaemon.start(CONFIG);
+            return;
+        }
+
+        // Starts up and exits before opening a browser; used by the AppCDS training run and the startup benchmark
+        if (args.length > 0 && args[0].equals("--startup-check")) {
+            startupCheck();
+            return;
+        }
+
         LOGGER.info("=== El País Opinion Scraper Started ===\n");
 
         WebDriver driver = null;
         try {
             driver = initializeDriver();
 
-            //Created File for storing images
-            Files.createDirectories(Paths.get(IMAGE_DIR));
-
-            navigateToOpinionSection(driver);
-            List<WebElement> articles = findArticles(driver);
+            scrape(driver);
 
-            LOGGER.info(String.format("Found %d articles. Processing first %d...\n",
-                    articles.size(), ARTICLE_COUNT));
-
-            List<String> translatedTitles = scrapeAndTranslateArticles(articles);
-
-            analyzeWordFrequency(translatedTitles);
+            analyzeWordFrequency();
 
             generateReport();
 
@@ -66,31 +112,114 @@ public class ElPaisScraper_locally {
             }
         }
 
-        LOGGER.info(String.format("\n=== Scraper Completed ===\nSuccess: %d | Failures: %d", successCount, failureCount));
+        LOGGER.info(String.format("\n=== Scraper Completed ===\nSuccess: %d | Failures: %d", successCount.get(), failureCount.get()));
+    }
+
+    // One full scrape on an open browser. Resets the results of any previous scrape, so the daemon can call it repeatedly.
+    static synchronized ScrapeResult scrape(WebDriver driver) throws Exception {
+        long started = System.currentTimeMillis();
+        scrapedArticles.clear();
+        wordCount.clear();
+        successCount.set(0);
+        failureCount.set(0);
+
+        //Created File for storing images
+        Files.createDirectories(Paths.get(IMAGE_DIR));
+
+        navigateToOpinionSection(driver);
+
+        if (WINDOWED) {
+            String streamFile = String.format("articles_%s.jsonl",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+            LOGGER.info(String.format("Windowed mode: streaming up to %d articles to %s...\n", WINDOW_TARGET, streamFile));
+
+            articleStream = Files.newBufferedWriter(Paths.get(streamFile), StandardCharsets.UTF_8);
+            try {
+                scrapeAndTranslateArticles(extracted -> extractWindows(driver, extracted));
+            } finally {
+                articleStream.close();
+                articleStream = null;
+            }
+        } else {
+            // Windowed mode doesn't look the articles up here, the reader fetches them a window at a time
+            List<WebElement> articles = findArticles(driver);
+            LOGGER.info(String.format("Found %d articles. Processing first %d...\n",
+                    articles.size(), ARTICLE_COUNT));
+
+            scrapeAndTranslateArticles(extracted -> extractListed(articles, extracted));
+        }
+
+        ScrapeResult result = new ScrapeResult();
+        result.completedAt = LocalDateTime.now().toString();
+        result.durationMs = System.currentTimeMillis() - started;
+        result.successCount = successCount.get();
+        result.failureCount = failureCount.get();
+        result.articles = List.copyOf(scrapedArticles);
+        result.wordFrequency = Map.copyOf(wordCount);
+        return result;
     }
 
-    
-    private static WebDriver initializeDriver() {
-        WebDriver driver = new ChromeDriver();
+    static WebDriver initializeDriver() {
+        WebDriver driver = null;
+        consentGiven = false;
+        if (REUSE_PROFILE) {
+            try {
+                Path profile = Paths.get(PROFILE_DIR).toAbsolutePath();
+                boolean warmProfile = Files.isDirectory(profile);
+                Files.createDirectories(profile);
+
+                ChromeOptions options = new ChromeOptions();
+                options.addArguments("--user-data-dir=" + profile, "--disk-cache-dir=" + profile.resolve("cache"));
+                driver = new ChromeDriver(options);
+                consentGiven = warmProfile;
+                LOGGER.info(warmProfile ? "Using warm Chrome profile: " + profile : "Creating Chrome profile: " + profile);
+            } catch (Exception e) {
+                // Most likely another run still holds the profile
+                LOGGER.warning("Could not use Chrome profile, starting with a fresh one: " + e.getMessage());
+            }
+        }
+        if (driver == null) {
+            driver = new ChromeDriver();
+        }
         driver.manage().window().maximize();
 
-        
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        // No implicit wait: it made every missing optional element (like an article without an image)
+        // cost the full 10 s. Places that need to wait for the page use explicit waits instead.
         return driver;
     }
 
+    // Touches the same classes a real run loads before it starts Chrome: config, logging, driver options,
+    // the HTTP client and the pipeline, without any network access
+    private static void startupCheck() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--user-data-dir=" + Paths.get(PROFILE_DIR).toAbsolutePath());
+        HttpRequest.newBuilder().uri(URI.create(API_URL)).header("x-rapidapi-host", API_HOST).build();
+        new PipelineStage<>("startup", 1, Thread.ofVirtual().factory(), new ArrayBlockingQueue<ArticleData>(1), null,
+                END_OF_STREAM, item -> { }, (item, e) -> { });
+        long now = System.currentTimeMillis();
+        long processStart = ProcessHandle.current().info().startInstant().map(start -> start.toEpochMilli()).orElse(now);
+        LOGGER.info(String.format("Startup check passed %d ms after process start", now - processStart));
+    }
+
     // Opening the opinion section
     private static void navigateToOpinionSection(WebDriver driver) {
         driver.get("https://elpais.com/");
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
 
-        try {
-            WebElement cookieButton = wait.until(
-                    ExpectedConditions.elementToBeClickable(By.id("didomi-notice-agree-button"))
-            );
-            cookieButton.click();
-        } catch (Exception e) {
-            throw new RuntimeException("Cookie banner not Found", e);
+        // A warm profile (or a browser that accepted before) has the consent cookies, so the banner normally doesn't show up
+        By cookieLocator = By.id("didomi-notice-agree-button");
+        boolean bannerShown = !consentGiven || bannerAppears(driver, cookieLocator);
+
+        if (bannerShown) {
+            try {
+                WebElement cookieButton = wait.until(ExpectedConditions.elementToBeClickable(cookieLocator));
+                cookieButton.click();
+                consentGiven = true;
+            } catch (Exception e) {
+                throw new RuntimeException("Cookie banner not Found", e);
+            }
+        } else {
+            LOGGER.info("Consent already given in this browser, skipping the cookie banner");
         }
 
         try {
@@ -103,51 +232,178 @@ public class ElPaisScraper_locally {
         }
     }
 
+    private static boolean bannerAppears(WebDriver driver, By cookieLocator) {
+        try {
+            new WebDriverWait(driver, CONSENT_BANNER_GRACE).until(ExpectedConditions.visibilityOfElementLocated(cookieLocator));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
     // Finding all the article present in opinion section and adding them to list
     private static List<WebElement> findArticles(WebDriver driver) {
-        List<WebElement> articles = driver.findElements(By.tagName("article"));
-        if (articles.isEmpty()) {
-            throw new RuntimeException("No articles found on page");
+        try {
+            return new WebDriverWait(driver, Duration.ofSeconds(10))
+                    .until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.tagName("article")));
+        } catch (Exception e) {
+            throw new RuntimeException("No articles found on page", e);
         }
-        return articles;
     }
 
-    // Scrapping the article listing,  logging all the content to console
-    private static List<String> scrapeAndTranslateArticles( List<WebElement> articles) {
-        List<String> translatedTitles = new ArrayList<>();
+    // Scrapping the article listing as a pipeline:
+    //   extract (driver thread) -> translate -> save image -> analyze + collect (sink)
+    // Stages are connected by bounded queues, so while one article is being translated the next
+    // one is already being extracted and the previous one's image is downloading. Total time
+    // approaches that of the slowest stage instead of the sum of all of them.
+    private static void scrapeAndTranslateArticles(Extraction extraction) throws InterruptedException {
+        BlockingQueue<ArticleData> extracted = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ArticleData> translated = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ArticleData> completed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        // Translation and image download just wait on the network, so they run on virtual threads
+        ThreadFactory ioThreads = Thread.ofVirtual().factory();
+
+        PipelineStage<ArticleData> translateStage = new PipelineStage<>("translate", TRANSLATE_WORKERS, ioThreads,
+                extracted, translated, END_OF_STREAM,
+                article -> {
+                    if (article.title != null && !article.title.isEmpty()) {
+                        article.translatedTitle = translateText(article.title);
+                    }
+                },
+                ElPaisScraper_locally::onArticleFailed);
+
+        PipelineStage<ArticleData> imageStage = new PipelineStage<>("image", IMAGE_WORKERS, ioThreads,
+                translated, completed, END_OF_STREAM,
+                article -> {
+                    if (article.imageUrl != null && !article.imageUrl.isEmpty()) {
+                        try {
+                            article.imagePath = saveImage(article.imageUrl, article.title, article.index);
+                        } catch (IOException e) {
+                            article.imagePath = null;
+                        }
+                    }
+                },
+                ElPaisScraper_locally::onArticleFailed);
+
+        // Single sink worker, so the word counts and article list need no locking
+        PipelineStage<ArticleData> sinkStage = new PipelineStage<>("sink", 1, Thread.ofPlatform().factory(),
+                completed, null, END_OF_STREAM,
+                ElPaisScraper_locally::collectArticle,
+                ElPaisScraper_locally::onArticleFailed);
+
+        long started = System.nanoTime();
+        translateStage.start();
+        imageStage.start();
+        sinkStage.start();
+
+        // Extraction has to stay on this thread because WebDriver is not thread safe
+        try {
+            extraction.feed(extracted);
+        } finally {
+            extracted.put(END_OF_STREAM);
+        }
+
+        translateStage.await();
+        imageStage.await();
+        sinkStage.await();
 
+        scrapedArticles.sort(Comparator.comparingInt(a -> a.index));
+        LOGGER.info(String.format("Pipeline finished in %d ms\n", (System.nanoTime() - started) / 1_000_000));
+    }
+
+    // Feeds the pipeline from the driver thread
+    private interface Extraction {
+        void feed(BlockingQueue<ArticleData> extracted) throws InterruptedException;
+    }
+
+    // Default mode: the first ARTICLE_COUNT articles of the list found on the page
+    private static void extractListed(List<WebElement> articles, BlockingQueue<ArticleData> extracted) throws InterruptedException {
         for (int i = 0; i < Math.min(ARTICLE_COUNT, articles.size()); i++) {
             try {
-                LOGGER.info(String.format("--- Article %d ---", i + 1));
+                extracted.put(scrapeArticle(articles.get(i), i + 1));
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                LOGGER.warning(String.format("Failed to process article %d: %s", i + 1, e.getMessage()));
+                failureCount.incrementAndGet();
+            }
+        }
+    }
 
-                ArticleData article = scrapeArticle(articles.get(i), i + 1);
+    // Windowed mode: ArticleWindowReader reads the next articles one window per script call, as plain values, so
+    // neither this JVM nor the page holds on to what has been read. Runs until the target, the time budget, or the
+    // end of the listing.
+    private static void extractWindows(WebDriver driver, BlockingQueue<ArticleData> extracted) throws InterruptedException {
+        long deadline = WINDOW_BUDGET_SECONDS > 0 ? System.nanoTime() + WINDOW_BUDGET_SECONDS * 1_000_000_000L : Long.MAX_VALUE;
+        ArticleWindowReader reader = new ArticleWindowReader(driver, WINDOW_SIZE, WINDOW_STEP_MILLIS, WINDOW_SETTLE_MILLIS,
+                Duration.ofSeconds(WINDOW_LOAD_MORE_SECONDS));
+        int index = 0;
+
+        while (index < WINDOW_TARGET && System.nanoTime() < deadline) {
+            long windowStart = System.nanoTime();
+            List<ArticleWindowReader.Item> items = reader.nextWindow();
+            if (items.isEmpty()) {
+                LOGGER.info(String.format("Listing ended after %d articles", index));
+                break;
+            }
 
-                scrapedArticles.add(article);
+            for (ArticleWindowReader.Item item : items) {
+                if (index >= WINDOW_TARGET) break;
+                ArticleData data = new ArticleData();
+                data.index = ++index;
+                data.title = textOrNull(item.title());
+                data.content = textOrNull(item.content());
+                data.imageUrl = textOrNull(item.imageUrl());
+                if (data.title == null) data.title = "Untitled";
+                extracted.put(data);
+            }
+            LOGGER.fine(String.format("Window of %d read in %d ms, %d articles so far",
+                    items.size(), (System.nanoTime() - windowStart) / 1_000_000, index));
+        }
+    }
 
-                if (article.title != null && !article.title.isEmpty()) {
-                    String translated = translateText(article.title);
-                    article.translatedTitle = translated;
-                    translatedTitles.add(translated);
+    private static String textOrNull(Object value) {
+        return value == null || value.toString().isEmpty() ? null : value.toString();
+    }
 
-                    // Print in exact format requested
-                    LOGGER.info(String.format("Title (Spanish): %s", article.title));
-                    LOGGER.info(String.format("Title (English): %s", translated));
-                    LOGGER.info(String.format("Content: %s", article.content != null ? article.content : "N/A"));
-                    LOGGER.info(String.format("Image: %s\n", article.imagePath != null ? article.imagePath : "No image available for this Article"));
-                }
+    // Last stage: logging the article, counting the words of its English title and keeping it for the report
+    private static void collectArticle(ArticleData article) {
+        LOGGER.info(String.format("--- Article %d ---", article.index));
 
-                successCount++;
+        if (article.title != null && !article.title.isEmpty()) {
+            // Print in exact format requested
+            LOGGER.info(String.format("Title (Spanish): %s", article.title));
+            LOGGER.info(String.format("Title (English): %s", article.translatedTitle));
+            LOGGER.info(String.format("Content: %s", article.content != null ? article.content : "N/A"));
+            LOGGER.info(String.format("Image: %s\n", article.imagePath != null ? article.imagePath : "No image available for this Article"));
 
-            } catch (Exception e) {
-                LOGGER.warning(String.format("Failed to process article %d: %s", i + 1, e.getMessage()));
-                failureCount++;
+            countWords(article.translatedTitle);
+        }
+
+        if (articleStream != null) {
+            // Windowed mode: every article goes to the stream file, only the first few stay in memory
+            try {
+                articleStream.write(GSON.toJson(article));
+                articleStream.newLine();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to write article " + article.index + " to the stream file: " + e.getMessage());
+            }
+            if (scrapedArticles.size() < WINDOW_RETAIN) {
+                scrapedArticles.add(article);
             }
+        } else {
+            scrapedArticles.add(article);
         }
+        successCount.incrementAndGet();
+    }
 
-        return translatedTitles;
+    private static void onArticleFailed(ArticleData article, Exception e) {
+        LOGGER.warning(String.format("Failed to process article %d: %s", article.index, e.getMessage()));
+        failureCount.incrementAndGet();
     }
 
-    // Finding the article title, content, img
+    // Finding the article title, content and image url (the image itself is downloaded by a later stage)
     private static ArticleData scrapeArticle(WebElement article, int index) {
         ArticleData data = new ArticleData();
         data.index = index;
@@ -168,13 +424,9 @@ public class ElPaisScraper_locally {
 
         try {
             WebElement imgElement = article.findElement(By.tagName("img"));
-            String imgUrl = imgElement.getAttribute("src");
-
-            if (imgUrl != null && !imgUrl.isEmpty()) {
-                data.imagePath = saveImage(imgUrl, data.title, index);
-            }
+            data.imageUrl = imgElement.getAttribute("src");
         } catch (Exception e) {
-            data.imagePath = null;
+            data.imageUrl = null;
         }
 
         return data;
@@ -201,7 +453,6 @@ public class ElPaisScraper_locally {
                     escapeJson(text)
             );
 
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(API_URL))
                     .header("Content-Type", "application/json")
@@ -210,7 +461,7 @@ public class ElPaisScraper_locally {
                     .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
                     .build();
 
-            HttpResponse<String> response = client.send(
+            HttpResponse<String> response = HTTP_CLIENT.send(
                     request, HttpResponse.BodyHandlers.ofString()
             );
 
@@ -229,21 +480,23 @@ public class ElPaisScraper_locally {
         }
     }
 
-    // Analyzing the English translated Title for finding words that appear more than 2
-    private static void analyzeWordFrequency(List<String> titles) {
-        LOGGER.info("=== Word Frequency Analysis ===");
-
-        Map<String, Integer> wordCount = new HashMap<>();
-
-        for (String title : titles) {
-            String[] words = title.toLowerCase().split("\\s+");
-            for (String word : words) {
-                word = word.replaceAll("[^a-zA-Z]", "");
-                if (word.length() > 2) {
-                    wordCount.put(word, wordCount.getOrDefault(word, 0) + 1);
-                }
+    // Counting the words of one English translated Title, called by the pipeline sink as articles arrive
+    private static void countWords(String title) {
+        if (title == null) {
+            return;
+        }
+        String[] words = title.toLowerCase().split("\\s+");
+        for (String word : words) {
+            word = word.replaceAll("[^a-zA-Z]", "");
+            if (word.length() > 2) {
+                wordCount.put(word, wordCount.getOrDefault(word, 0) + 1);
             }
         }
+    }
+
+    // Analyzing the English translated Titles for finding words that appear more than 2
+    private static void analyzeWordFrequency() {
+        LOGGER.info("=== Word Frequency Analysis ===");
 
         List<Map.Entry<String, Integer>> repeated = wordCount.entrySet().stream()
                 .filter(e -> e.getValue() > 2)
@@ -269,8 +522,8 @@ public class ElPaisScraper_locally {
             writer.println("=== El País Scraper Report ===");
             writer.println("Generated: " + timestamp);
             writer.println("Total Articles: " + scrapedArticles.size());
-            writer.println("Success: " + successCount);
-            writer.println("Failures: " + failureCount);
+            writer.println("Success: " + successCount.get());
+            writer.println("Failures: " + failureCount.get());
             writer.println("\n=== Articles ===");
 
             for (ArticleData article : scrapedArticles) {
@@ -285,9 +538,14 @@ public class ElPaisScraper_locally {
         LOGGER.info("Report generated: " + reportFile);
     }
 
+    // config.properties holds credentials and is never packaged: packaged builds (jar, native executable) read it
+    // from the working directory or from -Dconfig.file, the IDE run from the classpath
     private static Properties loadConfig() {
         Properties props = new Properties();
-        try (InputStream input = ElPaisScraper_locally.class.getResourceAsStream("/config.properties")) {
+        Path external = Paths.get(System.getProperty("config.file", "config.properties"));
+        try (InputStream input = Files.isRegularFile(external)
+                ? Files.newInputStream(external)
+                : ElPaisScraper_locally.class.getResourceAsStream("/config.properties")) {
             if (input != null) {
                 props.load(input);
             } else {
@@ -296,6 +554,14 @@ public class ElPaisScraper_locally {
                 props.setProperty("rapidapi.url", "https://google-translate113.p.rapidapi.com/api/v1/translator/json");
                 props.setProperty("article.count", "5");
                 props.setProperty("image.directory", "downloads/images");
+                props.setProperty("pipeline.queue.capacity", "4");
+                props.setProperty("pipeline.translate.workers", "4");
+                props.setProperty("pipeline.image.workers", "4");
+                props.setProperty("chrome.profile.reuse", "true");
+                props.setProperty("chrome.profile.dir", "state/chrome-profile");
+                props.setProperty("daemon.port", "8085");
+                props.setProperty("daemon.interval.minutes", "15");
+                props.setProperty("window.enabled", "false");
             }
         } catch (IOException e) {
             System.err.println("Failed to load configuration");
@@ -335,10 +601,21 @@ public class ElPaisScraper_locally {
                 .replace("\r", "\\r");
     }
 
+    // Outcome of one scrape. Never changed once built, so the daemon can hand it to HTTP readers without locking
+    static class ScrapeResult {
+        String completedAt;
+        long durationMs;
+        int successCount;
+        int failureCount;
+        List<ArticleData> articles;
+        Map<String, Integer> wordFrequency;
+    }
+
     static class ArticleData {
         int index;
         String title;
         String content;
+        String imageUrl;
         String imagePath;
         String translatedTitle;
     }
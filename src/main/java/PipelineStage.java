@@ -0,0 +1,95 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * One step of the local scraper pipeline. A fixed number of workers take items from a bounded
+ * input queue, process them and put them on a bounded output queue. Because both queues are
+ * bounded, a slow stage makes the stages in front of it block (backpressure) instead of letting
+ * work pile up in memory.
+ *
+ * The stage shuts down when it takes the end marker from its input. The last worker to see it
+ * forwards a single end marker downstream, so each stage only ever has to watch for one.
+ */
+final class PipelineStage<T> {
+
+    interface Task<T> {
+        void process(T item) throws Exception;
+    }
+
+    private final String name;
+    private final int workers;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<T> input;
+    private final BlockingQueue<T> output;
+    private final T endMarker;
+    private final Task<T> task;
+    private final BiConsumer<T, Exception> onFailure;
+    private final AtomicInteger running = new AtomicInteger();
+    private final List<Thread> threads = new ArrayList<>();
+
+    PipelineStage(String name, int workers, ThreadFactory threadFactory,
+                  BlockingQueue<T> input, BlockingQueue<T> output, T endMarker,
+                  Task<T> task, BiConsumer<T, Exception> onFailure) {
+        if (workers < 1) {
+            throw new IllegalArgumentException(name + " stage needs at least one worker");
+        }
+        this.name = name;
+        this.workers = workers;
+        this.threadFactory = threadFactory;
+        this.input = input;
+        this.output = output;
+        this.endMarker = endMarker;
+        this.task = task;
+        this.onFailure = onFailure;
+    }
+
+    void start() {
+        running.set(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread t = threadFactory.newThread(this::workLoop);
+            t.setName(name + "-" + i);
+            threads.add(t);
+            t.start();
+        }
+    }
+
+    void await() throws InterruptedException {
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    private void workLoop() {
+        try {
+            while (true) {
+                T item = input.take();
+
+                if (item == endMarker) {
+                    // Put it back so sibling workers see it too; the last one out signals downstream
+                    input.put(endMarker);
+                    if (running.decrementAndGet() == 0 && output != null) {
+                        output.put(endMarker);
+                    }
+                    return;
+                }
+
+                try {
+                    task.process(item);
+                } catch (Exception e) {
+                    onFailure.accept(item, e);
+                    continue;
+                }
+
+                if (output != null) {
+                    output.put(item);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
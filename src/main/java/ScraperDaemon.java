@@ -0,0 +1,188 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Long-running mode of the local scraper (started with --daemon). Keeps one Chrome open between
+ * scrapes, re-scrapes on a fixed schedule, and serves the latest results from memory:
+ *
+ *   GET /articles  latest articles (Spanish and English titles, content, image path)
+ *   GET /words     word frequencies of the translated titles
+ *   GET /health    driver state and when it was last checked, time of the last scrape and the last error
+ *
+ * The JSON for each endpoint is built once per scrape, so a request only copies bytes. Between
+ * scrapes the driver is probed every daemon.health.seconds on the scheduler thread (so it is still
+ * never used by two threads at once), and /health reports the result of the latest probe.
+ */
+public class ScraperDaemon {
+    private static final Logger LOGGER = Logger.getLogger(ScraperDaemon.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final byte[] NOT_READY = "{\"status\":\"no scrape completed yet\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final int port;
+    private final long intervalMinutes;
+    private final long healthSeconds;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "scrape-scheduler"));
+    private HttpServer server;
+    private WebDriver driver;
+
+    // Swapped in as a whole after each scrape; readers never see a half-updated result
+    private volatile byte[] articlesJson = NOT_READY;
+    private volatile byte[] wordsJson = NOT_READY;
+    private volatile String lastScrape;
+    private volatile String lastError;
+    private volatile boolean driverHealthy;
+    private volatile String driverCheckedAt;
+
+    private ScraperDaemon(Properties config) {
+        this.port = Integer.parseInt(config.getProperty("daemon.port", "8085"));
+        this.intervalMinutes = Long.parseLong(config.getProperty("daemon.interval.minutes", "15"));
+        this.healthSeconds = Long.parseLong(config.getProperty("daemon.health.seconds", "30"));
+    }
+
+    static void start(Properties config) {
+        ScraperDaemon daemon = new ScraperDaemon(config);
+        try {
+            daemon.startServer();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not start HTTP endpoint on port " + daemon.port, e);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "scraper-daemon-shutdown"));
+        daemon.scheduler.scheduleWithFixedDelay(daemon::scrapeOnce, 0, daemon.intervalMinutes, TimeUnit.MINUTES);
+        daemon.scheduler.scheduleWithFixedDelay(daemon::probeDriver, daemon.healthSeconds, daemon.healthSeconds, TimeUnit.SECONDS);
+        LOGGER.info(String.format("=== Scraper daemon started: http://127.0.0.1:%d, scraping every %d min ===",
+                daemon.port, daemon.intervalMinutes));
+    }
+
+    private void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/articles", exchange -> respond(exchange, articlesJson));
+        server.createContext("/words", exchange -> respond(exchange, wordsJson));
+        server.createContext("/health", exchange -> {
+            Map<String, Object> health = new LinkedHashMap<>();
+            health.put("driverHealthy", driverHealthy);
+            health.put("driverCheckedAt", driverCheckedAt);
+            health.put("lastScrape", lastScrape);
+            health.put("lastError", lastError);
+            respond(exchange, GSON.toJson(health).getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    // Runs on the scheduler thread only, so the driver is never used by two threads at once
+    private void scrapeOnce() {
+        try {
+            ensureDriver();
+            ElPaisScraper_locally.ScrapeResult result = ElPaisScraper_locally.scrape(driver);
+
+            articlesJson = GSON.toJson(Map.of(
+                    "completedAt", result.completedAt,
+                    "durationMs", result.durationMs,
+                    "successCount", result.successCount,
+                    "failureCount", result.failureCount,
+                    "articles", result.articles)).getBytes(StandardCharsets.UTF_8);
+            wordsJson = GSON.toJson(Map.of(
+                    "completedAt", result.completedAt,
+                    "wordFrequency", result.wordFrequency)).getBytes(StandardCharsets.UTF_8);
+            lastScrape = result.completedAt;
+            lastError = null;
+            LOGGER.info(String.format("Scrape finished in %d ms: %d articles", result.durationMs, result.articles.size()));
+
+        } catch (Exception e) {
+            // Keep serving the previous results; a broken driver is replaced before the next scrape
+            lastError = LocalDateTime.now() + " " + e.getMessage();
+            driverHealthy = false;
+            LOGGER.log(Level.WARNING, "Scrape failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Health check: a driver that no longer answers is quit and replaced by a fresh one
+    private void ensureDriver() {
+        if (driver != null) {
+            if (driverResponds()) return;
+            LOGGER.warning("Driver not responding, restarting it");
+            quitDriver();
+        }
+        driver = ElPaisScraper_locally.initializeDriver();
+        driverHealthy = true;
+        driverCheckedAt = LocalDateTime.now().toString();
+    }
+
+    // Periodic liveness check for /health; a dead driver is only replaced when the next scrape starts
+    private void probeDriver() {
+        boolean wasHealthy = driverHealthy;
+        if (driver != null && !driverResponds() && wasHealthy) {
+            LOGGER.warning("Driver not responding, it will be restarted before the next scrape");
+        }
+    }
+
+    private boolean driverResponds() {
+        try {
+            driver.getWindowHandle();
+            driverHealthy = true;
+        } catch (Exception e) {
+            LOGGER.fine("Driver check failed: " + e.getMessage());
+            driverHealthy = false;
+        }
+        driverCheckedAt = LocalDateTime.now().toString();
+        return driverHealthy;
+    }
+
+    private void quitDriver() {
+        if (driver != null) {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                LOGGER.fine("Driver did not quit cleanly: " + e.getMessage());
+            }
+            driver = null;
+        }
+    }
+
+    private void stop() {
+        LOGGER.info("Stopping scraper daemon");
+        if (server != null) server.stop(0);
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        quitDriver();
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads an article listing of any length a window at a time, for runs of thousands of articles.
+ *
+ * Each window is one async script call: it scrolls through the next few articles not read yet (so
+ * lazily rendered ones fill in), returns their title, snippet, image and link as plain values and
+ * empties them. The <article> elements themselves belong to the site's own scripts and stay in
+ * place, marked as read; the page remembers how many it has handed out, so a window looks up only
+ * the articles after that instead of searching the whole listing. No WebElement handles are kept
+ * between windows, so memory and time per window stay flat however far the run goes. When the page
+ * runs out, the reader scrolls to the bottom to trigger infinite scroll, and failing that follows
+ * the rel="next" pagination link.
+ *
+ * Used by both the BrowserStack tests and the local scraper.
+ */
+public class ArticleWindowReader {
+    private static final Logger LOGGER = Logger.getLogger(ArticleWindowReader.class.getName());
+
+    private static final String READ_WINDOW_SCRIPT =
+            "var size = arguments[0], step = arguments[1], settle = arguments[2], done = arguments[arguments.length - 1];" +
+            "var all = document.getElementsByTagName('article'), start = window.__articlesRead || 0, list = [];" +
+            "for (var k = start; k < all.length && list.length < size; k++) list.push(all[k]);" +
+            "var i = 0;" +
+            "function text(a, sel) { var n = a.querySelector(sel); return n ? n.textContent.trim() : ''; }" +
+            "function finish() {" +
+            "  window.__articlesRead = start + list.length;" +
+            "  done(list.map(function (a) {" +
+            "    var img = a.querySelector('img'), link = a.querySelector('h2 a');" +
+            "    var item = {title: text(a, 'h2'), content: text(a, 'p')," +
+            "      imageUrl: img ? (img.currentSrc || img.src || img.getAttribute('data-src') || '') : ''," +
+            "      url: link ? link.href : ''};" +
+            "    a.replaceChildren();" +
+            "    a.setAttribute('data-scraped', '1');" +
+            "    return item;" +
+            "  }));" +
+            "}" +
+            "function next() {" +
+            "  if (i < list.length) { list[i++].scrollIntoView({block: 'center'}); setTimeout(next, step); }" +
+            "  else { setTimeout(finish, list.length ? settle : 0); }" +
+            "}" +
+            "next();";
+
+    private static final String PENDING_SCRIPT =
+            "return document.getElementsByTagName('article').length - (window.__articlesRead || 0);";
+
+    private static final String NEXT_PAGE_SCRIPT =
+            "var next = document.querySelector('a[rel=\"next\"]'); return next ? next.href : null;";
+
+    private final WebDriver driver;
+    private final int windowSize;
+    private final long stepMillis;
+    private final long settleMillis;
+    private final Duration loadMoreWait;
+
+    // One article as read from the page
+    public record Item(String title, String content, String imageUrl, String url) {}
+
+    public ArticleWindowReader(WebDriver driver, int windowSize, long stepMillis, long settleMillis, Duration loadMoreWait) {
+        this.driver = driver;
+        this.windowSize = Math.max(1, windowSize);
+        this.stepMillis = stepMillis;
+        this.settleMillis = settleMillis;
+        this.loadMoreWait = loadMoreWait;
+    }
+
+    /**
+     * The next window of articles not read yet, loading more when the page has run out.
+     * An empty list means there are no more articles to read.
+     */
+    public List<Item> nextWindow() throws InterruptedException {
+        if (pending() == 0 && !loadMore()) {
+            return List.of();
+        }
+
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        // The script timeout is driver-wide, so the caller's value is put back afterwards
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration previousTimeout = timeouts.getScriptTimeout();
+        Object raw;
+        try {
+            timeouts.scriptTimeout(Duration.ofMillis(windowSize * stepMillis + settleMillis + 30_000));
+            raw = js.executeAsyncScript(READ_WINDOW_SCRIPT, windowSize, stepMillis, settleMillis);
+        } finally {
+            timeouts.scriptTimeout(previousTimeout);
+        }
+
+        List<Item> items = new ArrayList<>();
+        if (raw instanceof List<?> list) {
+            for (Object entry : list) {
+                if (entry instanceof Map<?, ?> values) {
+                    items.add(new Item(string(values.get("title")), string(values.get("content")),
+                            string(values.get("imageUrl")), string(values.get("url"))));
+                }
+            }
+        }
+        return items;
+    }
+
+    // Scrolls to the bottom and waits for new articles; if none come, goes to the next page if there is one
+    private boolean loadMore() throws InterruptedException {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+        long deadline = System.nanoTime() + loadMoreWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (pending() > 0) return true;
+            Thread.sleep(250);
+        }
+
+        Object next = js.executeScript(NEXT_PAGE_SCRIPT);
+        if (next instanceof String url && !url.isEmpty() && !url.equals(driver.getCurrentUrl())) {
+            LOGGER.log(Level.INFO, "Listing exhausted, following pagination to {0}", url);
+            driver.get(url);
+            return pending() > 0;
+        }
+        return false;
+    }
+
+    private long pending() {
+        Object count = ((JavascriptExecutor) driver).executeScript(PENDING_SCRIPT);
+        return count instanceof Number n ? n.longValue() : 0;
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
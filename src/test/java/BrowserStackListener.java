@@ -1,5 +1,8 @@
 import org.testng.*;
 
+import utils.AsyncLogHandler;
+
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -9,17 +12,21 @@ import java.util.logging.Logger;
 public class BrowserStackListener implements ISuiteListener, ITestListener {
 
     private static final Logger LOGGER = Logger.getLogger(BrowserStackListener.class.getName());
+    private static final String LOG_DIR = "log/sessions";
+    private static final int LOG_BUFFER_SIZE = 8192;
 
     // ── Suite level ──
 
     @Override
     public void onStart(ISuite suite) {
-        LOGGER.info("\n========== Suite Starting: " + suite.getName() + " ==========");
+        // Route all logging through one background writer with per-session JSON-lines files
+        AsyncLogHandler.install(LOG_DIR, LOG_BUFFER_SIZE);
+        LOGGER.log(Level.INFO, "\n========== Suite Starting: {0} ==========", suite.getName());
     }
 
     @Override
     public void onFinish(ISuite suite) {
-        LOGGER.info("\n========== Suite Finished: " + suite.getName() + " ==========");
+        LOGGER.log(Level.INFO, "\n========== Suite Finished: {0} ==========", suite.getName());
 
         int passed = 0, failed = 0, skipped = 0;
         for (ISuiteResult result : suite.getResults().values()) {
@@ -28,33 +35,35 @@ public class BrowserStackListener implements ISuiteListener, ITestListener {
             skipped += result.getTestContext().getSkippedTests().size();
         }
 
-        LOGGER.info(String.format("Final Results — Passed: %d | Failed: %d | Skipped: %d",
-                passed, failed, skipped));
+        LOGGER.log(Level.INFO, "Final Results — Passed: {0} | Failed: {1} | Skipped: {2}",
+                new Object[]{passed, failed, skipped});
+
+        AsyncLogHandler.uninstall();
     }
 
     // ── Test level ──
 
     @Override
     public void onTestStart(ITestResult result) {
-        LOGGER.info("\n[STARTED]  " + getTestName(result));
+        LOGGER.info(() -> "\n[STARTED]  " + getTestName(result));
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        LOGGER.info("[PASSED]   " + getTestName(result)
+        LOGGER.info(() -> "[PASSED]   " + getTestName(result)
                 + "  (" + duration(result) + "ms)");
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        LOGGER.severe("[FAILED]   " + getTestName(result)
+        LOGGER.severe(() -> "[FAILED]   " + getTestName(result)
                 + "  (" + duration(result) + "ms)"
                 + "\n  Reason: " + result.getThrowable().getMessage());
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        LOGGER.warning("[SKIPPED]  " + getTestName(result));
+        LOGGER.warning(() -> "[SKIPPED]  " + getTestName(result));
     }
 
     // ── Utility ──
@@ -0,0 +1,230 @@
+package benchmark;
+
+import models.SessionCheckpoint;
+import pages.OpinionPage;
+import utils.ArticleStreamSink;
+import utils.ArticleWindowReader;
+import utils.CheckpointStore;
+import utils.PhaseTimings;
+import utils.SessionContext;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.Assert;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * End-to-end load benchmark: runs OpinionPage with local headless Chrome sessions against
+ * SyntheticElPaisServer, so we can see how scraping behaves at thousands of articles and many
+ * concurrent sessions. Run it with src/test/resources/benchmark.xml.
+ *
+ * With windowed=true the page loads its articles by infinite scroll and the sessions stream them
+ * through ArticleWindowReader instead of reading one fixed list; p99.window.ms is then the time to
+ * read one window, which should stay flat however many articles the run covers.
+ *
+ * Results are written to target/benchmark-results.properties and compared with
+ * src/test/resources/benchmark-baseline.properties; the run fails when any metric is worse than the
+ * baseline by more than the tolerance, and also when there is no baseline yet, so a missing one
+ * can't pass for a clean run. The numbers depend on the machine, so no baseline is committed: the
+ * first run on a machine (or one that should accept new numbers) passes -Dbenchmark.writeBaseline=true,
+ * which writes the results as the baseline instead of comparing them.
+ */
+public class ScraperLoadBenchmark {
+    private static final Logger LOGGER = Logger.getLogger(ScraperLoadBenchmark.class.getName());
+    private static final String BASELINE = "benchmark-baseline.properties";
+    private static final Path RESULTS = Paths.get("target", "benchmark-results.properties");
+    private static final Path BASELINE_SOURCE = Paths.get("src", "test", "resources", BASELINE);
+    private static final String[] PHASES = {"navigate", "extract", "translate", "image"};
+
+    @Test
+    @Parameters({"sessions", "articles", "imageKb", "latencyMs", "lazyLoad", "windowed", "windowSize", "tolerance"})
+    public void opinionPageThroughput(@Optional("4") int sessions,
+                                      @Optional("1000") int articles,
+                                      @Optional("60") int imageKb,
+                                      @Optional("20") int latencyMs,
+                                      @Optional("true") boolean lazyLoad,
+                                      @Optional("false") boolean windowed,
+                                      @Optional("25") int windowSize,
+                                      @Optional("0.2") double tolerance) throws Exception {
+        SyntheticElPaisServer server = new SyntheticElPaisServer(articles, imageKb * 1024, latencyMs, lazyLoad);
+        if (windowed) {
+            server.withInfiniteScroll(windowSize * 2);
+        }
+        server.start();
+
+        // Per-article INFO logging would swamp the console at these volumes
+        Logger pagesLogger = Logger.getLogger("pages");
+        Level previousLevel = pagesLogger.getLevel();
+        pagesLogger.setLevel(Level.WARNING);
+
+        PhaseTimings.enable();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        ExecutorService pool = Executors.newFixedThreadPool(sessions);
+        try {
+            long started = System.nanoTime();
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 1; i <= sessions; i++) {
+                int session = i;
+                futures.add(pool.submit(() -> windowed
+                        ? runWindowedSession(server, session, articles, lazyLoad, windowSize)
+                        : runSession(server, session, articles, lazyLoad)));
+            }
+
+            int scraped = 0;
+            for (Future<Integer> future : futures) {
+                scraped += future.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            metrics.put("articlesPerSecond", scraped / seconds);
+            for (String phase : PHASES) {
+                metrics.put("p99." + phase + ".ms", PhaseTimings.percentileMillis(phase, 99));
+            }
+            if (windowed) {
+                metrics.put("p99.window.ms", PhaseTimings.percentileMillis("window", 99));
+            }
+            metrics.put("heapPeak.mb", heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() / (1024.0 * 1024.0));
+
+            LOGGER.log(Level.INFO, "=== Load Benchmark: {0} sessions x {1} articles, {2} KB images, {3} ms latency, lazy={4}, windowed={5} ===",
+                    new Object[]{sessions, articles, imageKb, latencyMs, lazyLoad, windowed});
+            LOGGER.log(Level.INFO, "Scraped {0} articles in {1,number,0.0} s", new Object[]{scraped, seconds});
+            metrics.forEach((name, value) -> LOGGER.log(Level.INFO, "  {0}: {1,number,0.00}", new Object[]{name, value}));
+
+            writeResults(metrics);
+            if (Boolean.getBoolean("benchmark.writeBaseline")) {
+                Files.copy(RESULTS, BASELINE_SOURCE, StandardCopyOption.REPLACE_EXISTING);
+                LOGGER.log(Level.INFO, "Baseline written to {0}, nothing compared this run", BASELINE_SOURCE);
+                return;
+            }
+            List<String> regressions = compareWithBaseline(metrics, tolerance);
+            Assert.assertTrue(regressions.isEmpty(), "Performance regressions: " + String.join("; ", regressions));
+
+        } finally {
+            pool.shutdownNow();
+            server.stop();
+            pagesLogger.setLevel(previousLevel);
+            PhaseTimings.disable();
+        }
+    }
+
+    private int runSession(SyntheticElPaisServer server, int session, int articles, boolean lazyLoad) throws Exception {
+        String sessionName = "Benchmark session " + session;
+        SessionContext.set(sessionName);
+
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--window-size=1280,900");
+        WebDriver driver = new ChromeDriver(options);
+        try {
+            PhaseTimings.time("navigate", () -> {
+                driver.get(server.baseUrl() + "/opinion/");
+                return null;
+            });
+
+            Path imageDir = Files.createDirectories(Paths.get("target", "benchmark", "images", "session-" + session));
+            // Only lazily loaded articles need time to render after scrolling
+            OpinionPage page = new OpinionPage(driver, sessionName).withRenderDelays(lazyLoad ? 50 : 0, 0);
+            CheckpointStore store = CheckpointStore.disabled();
+            SessionCheckpoint checkpoint = store.loadOrCreate(sessionName, false);
+
+            return page.scrapeArticles(articles, imageDir.toString(),
+                    server.baseUrl() + "/translate", "benchmark", "localhost", checkpoint, store, 1).size();
+        } finally {
+            driver.quit();
+            SessionContext.clear();
+        }
+    }
+
+    private int runWindowedSession(SyntheticElPaisServer server, int session, int articles, boolean lazyLoad, int windowSize) throws Exception {
+        String sessionName = "Benchmark session " + session;
+        SessionContext.set(sessionName);
+
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--window-size=1280,900");
+        WebDriver driver = new ChromeDriver(options);
+        try {
+            PhaseTimings.time("navigate", () -> {
+                driver.get(server.baseUrl() + "/opinion/");
+                return null;
+            });
+
+            Path dir = Files.createDirectories(Paths.get("target", "benchmark", "images", "session-" + session));
+            OpinionPage page = new OpinionPage(driver, sessionName);
+            ArticleWindowReader reader = new ArticleWindowReader(driver, windowSize, lazyLoad ? 20 : 0, lazyLoad ? 50 : 0, Duration.ofSeconds(10));
+            try (ArticleStreamSink sink = new ArticleStreamSink(dir.resolve("articles.jsonl"), 0)) {
+                return page.streamArticles(articles, Duration.ZERO, reader, dir.toString(),
+                        server.baseUrl() + "/translate", "benchmark", "localhost", sink).streamed();
+            }
+        } finally {
+            driver.quit();
+            SessionContext.clear();
+        }
+    }
+
+    private void writeResults(Map<String, Double> metrics) throws IOException {
+        Properties results = new Properties();
+        metrics.forEach((name, value) -> results.setProperty(name, String.format(Locale.ROOT, "%.2f", value)));
+        Files.createDirectories(RESULTS.getParent());
+        try (OutputStream out = Files.newOutputStream(RESULTS)) {
+            results.store(out, "Scraper load benchmark results");
+        }
+        LOGGER.log(Level.INFO, "Results written to {0}", RESULTS);
+    }
+
+    // Throughput may not drop, and latencies and heap may not grow, by more than the tolerance
+    private List<String> compareWithBaseline(Map<String, Double> metrics, double tolerance) throws IOException {
+        List<String> regressions = new ArrayList<>();
+        Properties baseline = new Properties();
+        try (InputStream in = ScraperLoadBenchmark.class.getClassLoader().getResourceAsStream(BASELINE)) {
+            if (in == null) {
+                Assert.fail("No " + BASELINE + " on the test classpath, so there is nothing to check for regressions against. "
+                        + "Run once with -Dbenchmark.writeBaseline=true to make this machine's results the baseline.");
+            }
+            baseline.load(in);
+        }
+
+        for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+            String stored = baseline.getProperty(metric.getKey());
+            if (stored == null) {
+                LOGGER.log(Level.WARNING, "{0} is not in the baseline, it is not checked for regressions", metric.getKey());
+                continue;
+            }
+
+            double expected = Double.parseDouble(stored);
+            double actual = metric.getValue();
+            boolean higherIsBetter = metric.getKey().equals("articlesPerSecond");
+            boolean regressed = higherIsBetter
+                    ? actual < expected * (1 - tolerance)
+                    : actual > expected * (1 + tolerance);
+            if (regressed) {
+                regressions.add(String.format("%s %.2f vs baseline %.2f", metric.getKey(), actual, expected));
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import org.testng.Assert;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compares how long the local scraper takes to start in each build mode: the plain jar, the jar
+ * with its AppCDS archive (mvn -Pappcds package) and the GraalVM native executable
+ * (mvn -Pnative package). Every run uses --startup-check, which starts up and exits before
+ * opening a browser, so the numbers are JVM startup and class loading only.
+ * Run it with src/test/resources/startup-benchmark.xml.
+ *
+ * Modes whose artifact has not been built are skipped. Results (median and fastest wall time per
+ * mode) are written to target/startup-results.properties.
+ */
+public class StartupBenchmark {
+    private static final Logger LOGGER = Logger.getLogger(StartupBenchmark.class.getName());
+    private static final Path RESULTS = Paths.get("target", "startup-results.properties");
+
+    @Test
+    @Parameters({"runs", "jar", "cdsArchive", "nativeImage"})
+    public void startupTime(@Optional("10") int runs,
+                            @Optional("target/BrowserStack_Round2-1.0-SNAPSHOT.jar") String jar,
+                            @Optional("target/scraper.jsa") String cdsArchive,
+                            @Optional("target/elpais-scraper") String nativeImage) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        if (Files.exists(Paths.get(jar))) {
+            modes.put("jar", List.of(java, "-jar", jar, "--startup-check"));
+            if (Files.exists(Paths.get(cdsArchive))) {
+                modes.put("appcds", List.of(java, "-XX:SharedArchiveFile=" + cdsArchive, "-jar", jar, "--startup-check"));
+            }
+        }
+        if (Files.isExecutable(Paths.get(nativeImage))) {
+            modes.put("native", List.of(nativeImage, "--startup-check"));
+        }
+        Assert.assertFalse(modes.isEmpty(), "Nothing to benchmark, build with mvn -Pappcds package and/or mvn -Pnative package first");
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            // One untimed run first, so the OS file cache is warm for every mode alike
+            run(mode.getValue());
+            List<Double> times = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                times.add(run(mode.getValue()));
+            }
+            Collections.sort(times);
+            metrics.put(mode.getKey() + ".median.ms", times.get(times.size() / 2));
+            metrics.put(mode.getKey() + ".fastest.ms", times.get(0));
+        }
+
+        LOGGER.log(Level.INFO, "=== Startup Benchmark: {0} runs per mode ===", runs);
+        metrics.forEach((name, value) -> LOGGER.log(Level.INFO, "  {0}: {1,number,0.0}", new Object[]{name, value}));
+        if (metrics.containsKey("jar.median.ms")) {
+            double plain = metrics.get("jar.median.ms");
+            for (String mode : modes.keySet()) {
+                if (mode.equals("jar")) continue;
+                LOGGER.log(Level.INFO, "  {0} starts {1,number,0.0}x faster than the plain jar",
+                        new Object[]{mode, plain / metrics.get(mode + ".median.ms")});
+            }
+        }
+        writeResults(metrics);
+    }
+
+    // Wall time of one process from launch to exit, in ms
+    private double run(List<String> command) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            Assert.fail("Startup check did not finish within 60 s: " + String.join(" ", command));
+        }
+        double millis = (System.nanoTime() - started) / 1e6;
+        Assert.assertEquals(process.exitValue(), 0, "Startup check failed: " + String.join(" ", command));
+        return millis;
+    }
+
+    private void writeResults(Map<String, Double> metrics) throws IOException {
+        Properties results = new Properties();
+        metrics.forEach((name, value) -> results.setProperty(name, String.format(Locale.ROOT, "%.1f", value)));
+        Files.createDirectories(RESULTS.getParent());
+        try (OutputStream out = Files.newOutputStream(RESULTS)) {
+            results.store(out, "Local scraper startup benchmark results");
+        }
+        LOGGER.log(Level.INFO, "Results written to {0}", RESULTS);
+    }
+}
@@ -0,0 +1,187 @@
+package benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for elpais.com used by the load benchmark. Serves an Opinión page shaped like the
+ * real one (article > h2 + p + img) with any number of articles, plus images of a chosen size and
+ * a translate endpoint, each with an optional artificial latency.
+ *
+ * With lazy loading on, titles, snippets and image sources are only filled in once an article
+ * scrolls into view, like Safari on the iPhone does with the real site. With infinite scroll on,
+ * the page starts with one batch of articles and fetches the next batch from /opinion/more each
+ * time the bottom of the list scrolls into view.
+ */
+public class SyntheticElPaisServer {
+    private static final String[] WORDS = {
+            "gobierno", "España", "crisis", "democracia", "futuro", "Europa", "política", "ciudad",
+            "derechos", "economía", "reforma", "justicia", "vivienda", "educación", "clima", "pacto"
+    };
+
+    private final int articleCount;
+    private final int latencyMillis;
+    private final boolean lazyLoad;
+    private final byte[] image;
+    private int pageSize;
+    private HttpServer server;
+    private ExecutorService executor;
+    private byte[] opinionPage;
+
+    public SyntheticElPaisServer(int articleCount, int imageBytes, int latencyMillis, boolean lazyLoad) {
+        this.articleCount = articleCount;
+        this.latencyMillis = latencyMillis;
+        this.lazyLoad = lazyLoad;
+        this.image = new byte[imageBytes];
+        new Random(42).nextBytes(image);
+    }
+
+    // Serve the articles in batches of pageSize, loaded as the reader scrolls (0 = all on one page)
+    public SyntheticElPaisServer withInfiniteScroll(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public void start() throws IOException {
+        opinionPage = buildOpinionPage().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/opinion/", exchange -> respond(exchange, 200, "text/html; charset=utf-8", opinionPage));
+        server.createContext("/opinion/more", exchange -> {
+            int from = Integer.parseInt(exchange.getRequestURI().getQuery().replace("from=", ""));
+            respond(exchange, 200, "text/html; charset=utf-8", articles(from, Math.min(articleCount, from + pageSize - 1)).getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/img/", exchange -> respond(exchange, 200, "image/jpeg", image));
+        // Echoing the request back is enough: the client just reads the first "title" field of the reply
+        server.createContext("/translate", exchange -> {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            respond(exchange, 200, "application/json", body);
+        });
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String buildOpinionPage() {
+        int firstBatch = pageSize > 0 ? Math.min(pageSize, articleCount) : articleCount;
+        StringBuilder html = new StringBuilder(firstBatch * 320 + 2048);
+        html.append("<!DOCTYPE html><html lang=\"es-ES\"><head><meta charset=\"utf-8\"><title>Opinión | EL PAÍS</title></head><body>");
+        html.append("<main><h1>Opinión</h1>");
+        html.append(articles(1, firstBatch));
+        html.append("</main>");
+        if (pageSize > 0) {
+            html.append("<div id=\"more\" data-next=\"").append(firstBatch + 1).append("\" style=\"height:1px\"></div>");
+        }
+
+        html.append("<script>");
+        if (lazyLoad) {
+            html.append("var io = new IntersectionObserver(function (entries) {")
+                .append("  entries.forEach(function (e) {")
+                .append("    if (!e.isIntersecting) return;")
+                .append("    e.target.querySelectorAll('[data-text]').forEach(function (n) { n.textContent = n.getAttribute('data-text'); });")
+                .append("    var img = e.target.querySelector('img[data-src]');")
+                .append("    if (img) img.src = img.getAttribute('data-src');")
+                .append("    io.unobserve(e.target);")
+                .append("  });")
+                .append("});")
+                .append("function observe(root) { root.querySelectorAll('article:not([data-observed])').forEach(function (a) {")
+                .append("  a.setAttribute('data-observed', '1'); io.observe(a); }); }");
+        } else {
+            html.append("function observe(root) {}");
+        }
+        html.append("observe(document);");
+        if (pageSize > 0) {
+            // Checks again after each batch: pruned or short content can leave the sentinel in view without a new intersection event
+            html.append("var more = document.getElementById('more'), loading = false;")
+                .append("function loadMore() {")
+                .append("  var next = +more.getAttribute('data-next');")
+                .append("  if (loading || next > ").append(articleCount).append(") return;")
+                .append("  loading = true;")
+                .append("  fetch('/opinion/more?from=' + next).then(function (r) { return r.text(); }).then(function (fragment) {")
+                .append("    var main = document.querySelector('main');")
+                .append("    main.insertAdjacentHTML('beforeend', fragment);")
+                .append("    more.setAttribute('data-next', next + ").append(pageSize).append(");")
+                .append("    observe(main);")
+                .append("    loading = false;")
+                .append("    if (more.getBoundingClientRect().top < window.innerHeight) loadMore();")
+                .append("  });")
+                .append("}")
+                .append("new IntersectionObserver(function (entries) { if (entries[0].isIntersecting) loadMore(); }).observe(more);");
+        }
+        html.append("</script>");
+        return html.append("</body></html>").toString();
+    }
+
+    // Articles from..to (1-based, inclusive). Each one's text depends only on its number, so batches match the full page.
+    private String articles(int from, int to) {
+        StringBuilder html = new StringBuilder(Math.max(0, to - from + 1) * 320);
+        for (int i = from; i <= to; i++) {
+            Random random = new Random(i);
+            String title = phrase(random, 6) + " " + i;
+            String snippet = phrase(random, 18);
+            String src = "/img/" + i + ".jpg?width=414";
+
+            html.append("<article>");
+            if (lazyLoad) {
+                html.append("<h2 data-text=\"").append(title).append("\"></h2>");
+                html.append("<p data-text=\"").append(snippet).append("\"></p>");
+                html.append("<img alt=\"\" data-src=\"").append(src).append("\">");
+            } else {
+                html.append("<h2>").append(title).append("</h2>");
+                html.append("<p>").append(snippet).append("</p>");
+                html.append("<img alt=\"\" src=\"").append(src).append("\">");
+            }
+            html.append("</article>");
+        }
+        return html.toString();
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -6,4 +6,7 @@ public class ArticleData {
     public String translatedTitle;
     public String content;
     public String imagePath;
+    // Link to the article and the opening of its full text (read from the detail page in tab mode)
+    public String url;
+    public String body;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package models;
+
+public class PageTiming {
+    public String page;
+    public String url;
+    // Navigation Timing, in ms from the start of the navigation
+    public double ttfbMs;
+    public double domContentLoadedMs;
+    public double loadMs;
+    // The load event had not finished when the timing was read, so loadMs is not a real load time
+    public boolean incomplete;
+    // Largest Contentful Paint, null when the browser doesn't report it (Safari)
+    public Double lcpMs;
+    // Resource Timing: number of resources and bytes over the wire (document included)
+    public int resourceCount;
+    public long transferBytes;
+    public long encodedBytes;
+    // The page filled the browser's resource timing buffer, so the counts above are a lower bound
+    public boolean truncated;
+}
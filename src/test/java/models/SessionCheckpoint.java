@@ -0,0 +1,42 @@
+package models;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SessionCheckpoint {
+    public enum Phase { STARTED, NAVIGATED, COMPLETE }
+    // VERIFIED: the article's fingerprint matched the primary session, so it isn't scraped here
+    public enum ArticleStage { NONE, EXTRACTED, TRANSLATED, DOWNLOADED, VERIFIED }
+
+    public String sessionName;
+    public Phase phase = Phase.STARTED;
+    public String homePageScreenshot;
+    public List<PageTiming> pageTimings = new ArrayList<>();
+    public List<ArticleCheckpoint> articles = new ArrayList<>();
+    // Tab mode: headlines of the extra sections, null until they have been read
+    public Map<String, List<String>> sectionHeadlines;
+    // Windowed mode: word counts over every streamed article and how many there were
+    public Map<String, Integer> wordFreq;
+    public int streamedArticles;
+    // Verification mode: the primary keeps its fingerprints, the others whether they compared yet
+    public List<List<String>> fingerprints;
+    public boolean fingerprinted;
+    public String verifiedAgainst;
+    public List<String> fingerprintDifferences = new ArrayList<>();
+
+    public static class ArticleCheckpoint {
+        public ArticleStage stage = ArticleStage.NONE;
+        public String imageUrl;
+        public ArticleData data = new ArticleData();
+    }
+
+    // Returns the checkpoint for the article at this (1-based) position, creating it if needed
+    public ArticleCheckpoint article(int index) {
+        while (articles.size() < index) {
+            ArticleCheckpoint a = new ArticleCheckpoint();
+            a.data.index = articles.size() + 1;
+            articles.add(a);
+        }
+        return articles.get(index - 1);
+    }
+}
@@ -4,7 +4,22 @@ import java.util.Map;
 
 public class SessionResult {
     public String sessionName;
+    // Position of the browser in browsers.yml, so merged shards are reported in matrix order
+    public int matrixIndex;
     public String homePageScreenshot;
     public List<ArticleData> articles;
     public Map<String, Integer> wordFreq;
+    // Windowed mode: number of articles streamed to articles.jsonl (only the first few are in articles)
+    public int streamedArticles;
+    public List<PageTiming> pageTimings;
+    // Tab mode: headlines of the extra sections, by section URL
+    public Map<String, List<String>> sectionHeadlines;
+
+    // Fingerprint verification mode: primary session compared against, articles found identical to it,
+    // and the differences found (e.g. "Article 3: image differs")
+    public String verifiedAgainst;
+    public List<Integer> verifiedArticles;
+    // This browser's own title and snippet of the verified articles, used if the primary has no data for one
+    public List<ArticleData> verifiedFallback;
+    public List<String> fingerprintDifferences;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Detail page of a single article, opened from the Opinión list
+public class ArticlePage {
+    private WebDriver driver;
+
+    // Locators
+    private By bodyParagraphs = By.cssSelector("article p");
+
+    public ArticlePage(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    // The opening paragraphs of the article body
+    public String readBody(int paragraphs) {
+        List<WebElement> found = driver.findElements(bodyParagraphs);
+        return found.stream()
+                .map(WebElement::getText)
+                .filter(text -> !text.isBlank())
+                .limit(paragraphs)
+                .collect(Collectors.joining("\n"));
+    }
+}
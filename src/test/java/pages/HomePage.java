@@ -1,91 +1,165 @@
 package pages;
 
+import utils.BrowserStateStore;
+import utils.ScreenshotService;
+import utils.TimeoutPolicy;
+
 import org.openqa.selenium.By;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class HomePage {
     private WebDriver driver;
-    private WebDriverWait wait;
+    private TimeoutPolicy.ProfileWaits waits;
     private String sessionName;
+    private BrowserStateStore browserState;
+    private boolean stateRestored;
     private static final Logger LOGGER = Logger.getLogger(HomePage.class.getName());
 
     // Locators
     private By htmlTag = By.tagName("html");
     private By cookieBtn = By.id("didomi-notice-agree-button");
     private By opinionLink = By.linkText("Opinión");
+    private By articles = By.tagName("article");
+
+    // Upper bounds for each wait; the actual timeout comes from this profile's wait history
+    private static final Duration COOKIE_BANNER_TIMEOUT = Duration.ofSeconds(20);
+    private static final Duration COOKIE_DISMISS_TIMEOUT = Duration.ofSeconds(2);
+    // Fixed, not adaptive: Didomi injects the banner after the page loads, so restored consent is only trusted once
+    // none shows up in this time
+    private static final Duration RESTORED_BANNER_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration OPINION_LINK_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration ARTICLES_TIMEOUT = Duration.ofSeconds(10);
 
-    public HomePage(WebDriver driver, String sessionName) {
+    public HomePage(WebDriver driver, String sessionName, TimeoutPolicy.ProfileWaits waits) {
         this.driver = driver;
         this.sessionName = sessionName;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+        this.waits = waits;
+    }
+
+    // Restores saved consent state before the first page load, so the cookie banner doesn't show up
+    public HomePage withBrowserState(BrowserStateStore browserState) {
+        this.browserState = browserState;
+        return this;
     }
 
     public void navigateToEspana() {
+        restoreBrowserState();
         driver.get("https://elpais.com/espana/");
     }
 
     public void verifySpanishLanguage() {
         WebElement htmlElement = driver.findElement(htmlTag);
         String pageLang = htmlElement.getAttribute("lang");
-        LOGGER.info(String.format("[%s] Page language detected: %s", sessionName, pageLang));
+        LOGGER.log(Level.INFO, "Page language detected: {0}", pageLang);
 
         Assert.assertTrue(pageLang != null && pageLang.startsWith("es"),
                 String.format("[%s] Critical Error: Website language is not Spanish! Found: %s", sessionName, pageLang));
     }
 
-    public String takeScreenshot(String imageDir) {
-        String screenshotPath = imageDir + "/home_screenshot.jpg";
+    // Only the capture happens here; encoding to the final format runs in the background
+    public String takeScreenshot(String imageDir, ScreenshotService screenshots) {
         try {
-            File srcFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Files.copy(srcFile.toPath(), Paths.get(screenshotPath), StandardCopyOption.REPLACE_EXISTING);
-            LOGGER.info(String.format("[%s] Screenshot taken", sessionName));
+            String screenshotPath = screenshots.capture(driver, imageDir, "home_screenshot");
+            LOGGER.info("Screenshot taken");
             return screenshotPath;
         } catch (Exception e) {
-            LOGGER.warning("Failed to take screenshot: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Failed to take screenshot: {0}", e.getMessage());
             return null;
         }
     }
 
     public void acceptCookies() {
+        if (stateRestored) {
+            // Consent came from the snapshot: only a short wait for a banner that shouldn't appear. Not learned by
+            // TimeoutPolicy, since this wait is meant to time out and would only skew its history.
+            boolean bannerShown;
+            try {
+                new WebDriverWait(driver, RESTORED_BANNER_TIMEOUT)
+                        .until(ExpectedConditions.visibilityOfElementLocated(cookieBtn));
+                bannerShown = true;
+            } catch (TimeoutException e) {
+                bannerShown = false;
+            }
+            if (!bannerShown) {
+                LOGGER.info("Consent restored from snapshot, no cookie banner");
+                return;
+            }
+            LOGGER.warning("Cookie banner shown despite restored consent, taking a new snapshot");
+            browserState.invalidate();
+            stateRestored = false;
+        }
+
         try {
-            WebElement btn = wait.until(ExpectedConditions.elementToBeClickable(cookieBtn));
+            WebElement btn = waits.until(driver, "cookieBanner", COOKIE_BANNER_TIMEOUT,
+                    ExpectedConditions.elementToBeClickable(cookieBtn));
             btn.click();
-            LOGGER.info(String.format("[%s] Cookies accepted", sessionName));
-            Thread.sleep(2000);
+            LOGGER.info("Cookies accepted");
         } catch (Exception e) {
-            LOGGER.warning(String.format("[%s] Cookie banner not found", sessionName));
+            LOGGER.warning("Cookie banner not found");
+            return;
+        }
+
+        // Wait for the banner to actually close instead of sleeping a fixed time
+        try {
+            waits.until(driver, "cookieDismiss", COOKIE_DISMISS_TIMEOUT,
+                    ExpectedConditions.invisibilityOfElementLocated(cookieBtn));
+        } catch (Exception e) {
+            LOGGER.fine("Cookie banner still visible, continuing");
+        }
+
+        if (browserState != null) {
+            browserState.captureIfMissing(driver);
         }
     }
 
     public OpinionPage goToOpinionPage() {
         try {
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            WebElement link = shortWait.until(ExpectedConditions.presenceOfElementLocated(opinionLink));
+            WebElement link = waits.until(driver, "opinionLink", OPINION_LINK_TIMEOUT,
+                    ExpectedConditions.presenceOfElementLocated(opinionLink));
             Thread.sleep(1000);
             link.click();
-            LOGGER.info(String.format("[%s] Navigated to Opinión via link", sessionName));
+            LOGGER.info("Navigated to Opinión via link");
         } catch (Exception e) {
             //If by chance due to some responsivness of different devices we can't see Opinion then we direclty navigate it via link
-            LOGGER.warning(String.format("[%s] Link not found, falling back to direct URL", sessionName));
+            LOGGER.warning("Link not found, falling back to direct URL");
             driver.get("https://elpais.com/opinion/");
-            LOGGER.info(String.format("[%s] Navigated to Opinión via URL", sessionName));
+            LOGGER.info("Navigated to Opinión via URL");
         }
 
-        try { Thread.sleep(3000); } catch (InterruptedException ignored) {}
+        waitForArticles();
+        return new OpinionPage(driver, sessionName);
+    }
 
+    // Used when resuming with a fresh driver: the home page checks are already done, so go straight to Opinión
+    public OpinionPage resumeAtOpinionPage() {
+        restoreBrowserState();
+        driver.get("https://elpais.com/opinion/");
+        acceptCookies();
+        LOGGER.info("Resumed at Opinión via URL");
+        waitForArticles();
         return new OpinionPage(driver, sessionName);
     }
+
+    private void restoreBrowserState() {
+        stateRestored = browserState != null && browserState.restore(driver);
+    }
+
+    // Replaces the old fixed 3 s pause: continue as soon as the article list is there
+    private void waitForArticles() {
+        try {
+            waits.until(driver, "opinionArticles", ARTICLES_TIMEOUT,
+                    ExpectedConditions.presenceOfAllElementsLocatedBy(articles));
+        } catch (Exception e) {
+            LOGGER.warning("No articles appeared on the Opinión page");
+        }
+    }
 }
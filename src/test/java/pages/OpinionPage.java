@@ -1,14 +1,26 @@
 package pages;
 
 import models.ArticleData;
+import models.SessionCheckpoint;
+import models.SessionCheckpoint.ArticleStage;
+import utils.ArticleWindowReader;
+import utils.CheckpointStore;
+import utils.FingerprintUtil;
+import utils.PhaseTimings;
+import utils.RetryUtil;
 import utils.ScraperUtils;
+import utils.TabPool;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class OpinionPage {
@@ -21,71 +33,228 @@ public class OpinionPage {
     private By titleLocator = By.tagName("h2");
     private By contentLocator = By.tagName("p");
     private By imageLocator = By.tagName("img");
+    private By linkLocator = By.cssSelector("h2 a");
+
+    // Pauses that give lazily rendered articles time to appear (see the iPhone Safari note in the README)
+    private long scrollSettleMillis = 800;
+    private long articlePauseMillis = 500;
+
+    // Articles sent to the sink, and how many of them went without their translation or image
+    public record StreamResult(int streamed, int incomplete) {}
 
     public OpinionPage(WebDriver driver, String sessionName) {
         this.driver = driver;
         this.sessionName = sessionName;
     }
 
-    public List<ArticleData> scrapeArticles(int count, String imageDir, String apiUrl, String apiKey, String apiHost) {
+    public OpinionPage withRenderDelays(long scrollSettleMillis, long articlePauseMillis) {
+        this.scrollSettleMillis = scrollSettleMillis;
+        this.articlePauseMillis = articlePauseMillis;
+        return this;
+    }
+
+    /**
+     * Scrapes the first {@code count} articles, one stage at a time (extract, translate, download),
+     * recording each finished stage in the checkpoint. Stages already done in the checkpoint are
+     * skipped, so a resumed session only repeats the work that was lost. Every stage is retried on
+     * its own before the article is given up on.
+     */
+    public List<ArticleData> scrapeArticles(int count, String imageDir, String apiUrl, String apiKey, String apiHost,
+                                            SessionCheckpoint checkpoint, CheckpointStore store, int attempts) throws Exception {
         List<WebElement> articleElements = driver.findElements(articlesLocator);
-        LOGGER.info(String.format("[%s] Found %d articles", sessionName, articleElements.size()));
+        LOGGER.log(Level.INFO, "Found {0} articles", articleElements.size());
 
         List<ArticleData> scrapedData = new ArrayList<>();
 
         for (int i = 0; i < Math.min(count, articleElements.size()); i++) {
-            try {
-                ArticleData data = new ArticleData();
-                data.index = i + 1;
-                WebElement article = articleElements.get(i);
-
-                // In Iphone the articles moves to the bottom of the screen due to which we cant read their title and content so 
-                // forceing the mobile browser to scroll to the article so it renders the text
-                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
-                        "arguments[0].scrollIntoView({block: 'center'});", article);
+            int position = i;
+            WebElement initial = articleElements.get(i);
+            int[] attempt = {0};
+            SessionCheckpoint.ArticleCheckpoint article = checkpoint.article(i + 1);
+            ArticleData data = article.data;
 
-                Thread.sleep(800);
+            // Matched the primary session's fingerprint, its data comes from there
+            if (article.stage == ArticleStage.VERIFIED) continue;
 
-                //Get Title
-                try {
-                    data.title = article.findElement(titleLocator).getText();
-                    LOGGER.info(String.format("[%s] Title (Spanish): %s", sessionName, data.title));
-                } catch (Exception e) {
-                    data.title = "Untitled";
-                }
-
-                //Get Translation via API
-                if (!data.title.isEmpty() && !data.title.equals("Untitled")) {
-                    data.translatedTitle = ScraperUtils.translateText(data.title, apiUrl, apiKey, apiHost);
-                    LOGGER.info(String.format("[%s] Title (English): %s", sessionName, data.translatedTitle));
+            try {
+                if (article.stage.compareTo(ArticleStage.EXTRACTED) < 0) {
+                    // First attempt uses the element found above, retries look it up again in case it went stale
+                    PhaseTimings.time("extract", () -> RetryUtil.withRetries("Extracting article " + data.index, attempts, 1000,
+                            () -> extractArticle(attempt[0]++ == 0 ? initial : findArticle(position), article)));
+                    article.stage = ArticleStage.EXTRACTED;
+                    store.save(checkpoint);
                 }
 
-                //Get Content
-                try {
-                    data.content = article.findElement(contentLocator).getText();
-                } catch (Exception e) {
-                    data.content = "N/A";
+                //Get Translation via API (translateText already falls back to the Spanish title on errors)
+                if (article.stage.compareTo(ArticleStage.TRANSLATED) < 0) {
+                    if (!data.title.isEmpty() && !data.title.equals("Untitled")) {
+                        data.translatedTitle = PhaseTimings.time("translate",
+                                () -> ScraperUtils.translateText(data.title, apiUrl, apiKey, apiHost));
+                        LOGGER.log(Level.INFO, "Title (English): {0}", data.translatedTitle);
+                    }
+                    article.stage = ArticleStage.TRANSLATED;
+                    store.save(checkpoint);
                 }
 
                 //Get Image
-                try {
-                    WebElement img = article.findElement(imageLocator);
-                    String imgUrl = img.getAttribute("src");
-                    if (imgUrl != null && !imgUrl.isEmpty()) {
-                        data.imagePath = ScraperUtils.saveImage(imgUrl, data.title, i + 1, imageDir);
+                if (article.stage.compareTo(ArticleStage.DOWNLOADED) < 0) {
+                    boolean downloaded = true;
+                    if (article.imageUrl != null && !article.imageUrl.isEmpty()) {
+                        try {
+                            data.imagePath = PhaseTimings.time("image", () -> RetryUtil.withRetries("Downloading image " + data.index, attempts, 1000,
+                                    () -> ScraperUtils.saveImage(article.imageUrl, data.title, data.index, imageDir)));
+                        } catch (Exception e) {
+                            // Stays at TRANSLATED, so a resumed session tries the download again
+                            LOGGER.log(Level.WARNING, "Image download failed for article {0}: {1}", new Object[]{data.index, e.getMessage()});
+                            data.imagePath = null;
+                            downloaded = false;
+                        }
+                    } else {
+                        LOGGER.log(Level.WARNING, "Image not available for article {0}", data.index);
+                    }
+                    if (downloaded) {
+                        article.stage = ArticleStage.DOWNLOADED;
+                        store.save(checkpoint);
                     }
-                } catch (Exception e) {
-                    LOGGER.warning(String.format("[%s] Image not available for article %d", sessionName, data.index));
-                    data.imagePath = null;
                 }
 
                 scrapedData.add(data);
-                Thread.sleep(500);
 
             } catch (Exception e) {
-                LOGGER.warning(String.format("[%s] Failed on article %d: %s", sessionName, i + 1, e.getMessage()));
+                // A dead session can't be fixed here, the test restarts it with a fresh driver
+                if (RetryUtil.isSessionLost(e)) throw e;
+                LOGGER.log(Level.WARNING, "Failed on article {0}: {1}", new Object[]{i + 1, e.getMessage()});
             }
         }
         return scrapedData;
     }
+
+    /**
+     * Windowed mode for long runs: reads the listing a window at a time (scrolling or paging to
+     * load more), translates each article, downloads its image and hands it to the sink straight
+     * away. Stops at {@code target} articles, when the time budget is used up, or when the listing
+     * ends. Nothing but the current window is held, so memory stays flat for thousands of articles.
+     */
+    public StreamResult streamArticles(int target, Duration budget, ArticleWindowReader reader, String imageDir,
+                              String apiUrl, String apiKey, String apiHost, Consumer<ArticleData> sink) throws Exception {
+        long deadline = budget.isZero() ? Long.MAX_VALUE : System.nanoTime() + budget.toNanos();
+        int emitted = 0;
+        int incomplete = 0;
+
+        while (emitted < target && System.nanoTime() < deadline) {
+            List<ArticleWindowReader.Item> window = PhaseTimings.time("window", reader::nextWindow);
+            if (window.isEmpty()) {
+                LOGGER.log(Level.INFO, "Listing ended after {0} articles", emitted);
+                break;
+            }
+
+            for (ArticleWindowReader.Item item : window) {
+                if (emitted >= target) break;
+                ArticleData data = new ArticleData();
+                data.index = emitted + 1;
+                data.title = item.title().isEmpty() ? "Untitled" : item.title();
+                data.content = item.content().isEmpty() ? "N/A" : item.content();
+                data.url = item.url().isEmpty() ? null : item.url();
+
+                try {
+                    if (!data.title.equals("Untitled")) {
+                        data.translatedTitle = PhaseTimings.time("translate",
+                                () -> ScraperUtils.translateText(data.title, apiUrl, apiKey, apiHost));
+                    }
+                    if (!item.imageUrl().isEmpty()) {
+                        data.imagePath = PhaseTimings.time("image",
+                                () -> ScraperUtils.saveImage(item.imageUrl(), data.title, data.index, imageDir));
+                    }
+                } catch (Exception e) {
+                    if (RetryUtil.isSessionLost(e)) throw e;
+                    LOGGER.log(Level.WARNING, "Article {0} incomplete: {1}", new Object[]{data.index, e.getMessage()});
+                    incomplete++;
+                }
+
+                sink.accept(data);
+                emitted++;
+            }
+            LOGGER.log(Level.FINE, "Window done, {0} articles so far", emitted);
+        }
+        LOGGER.log(Level.INFO, "Streamed {0} articles", emitted);
+        return new StreamResult(emitted, incomplete);
+    }
+
+    /**
+     * Opens the detail page of every scraped article that has a link, several at a time in tabs of
+     * this session, and keeps the opening paragraphs of each. Articles read in an earlier attempt
+     * are skipped.
+     */
+    public void readArticleDetails(SessionCheckpoint checkpoint, TabPool tabs, int paragraphs) throws Exception {
+        List<ArticleData> pending = checkpoint.articles.stream()
+                .filter(a -> a.stage == ArticleStage.DOWNLOADED)
+                .map(a -> a.data)
+                .filter(data -> data.url != null && data.body == null)
+                .toList();
+        if (pending.isEmpty()) return;
+
+        Map<String, String> bodies = PhaseTimings.time("details", () -> tabs.harvest(
+                pending.stream().map(data -> data.url).distinct().toList(),
+                page -> new ArticlePage(page).readBody(paragraphs)));
+        for (ArticleData data : pending) {
+            data.body = bodies.get(data.url);
+        }
+        LOGGER.log(Level.INFO, "Read {0} of {1} article pages", new Object[]{bodies.size(), pending.size()});
+    }
+
+    // Hashes title, snippet and image of the first articles in a single script call (verification mode)
+    public List<List<String>> fingerprintArticles(int count) {
+        List<List<String>> fingerprints = FingerprintUtil.capture(driver, count);
+        LOGGER.log(Level.INFO, "Fingerprinted {0} articles", fingerprints.size());
+        return fingerprints;
+    }
+
+    // Looks up a single article by position, without fetching every article on the page again
+    private WebElement findArticle(int position) {
+        return driver.findElement(By.xpath("(//article)[" + (position + 1) + "]"));
+    }
+
+    // Reads title, content and image url of one article
+    private Void extractArticle(WebElement article, SessionCheckpoint.ArticleCheckpoint checkpoint) throws InterruptedException {
+        ArticleData data = checkpoint.data;
+
+        // In Iphone the articles moves to the bottom of the screen due to which we cant read their title and content so 
+        // forceing the mobile browser to scroll to the article so it renders the text
+        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
+                "arguments[0].scrollIntoView({block: 'center'});", article);
+
+        Thread.sleep(scrollSettleMillis);
+
+        //Get Title
+        try {
+            data.title = article.findElement(titleLocator).getText();
+            LOGGER.log(Level.INFO, "Title (Spanish): {0}", data.title);
+        } catch (Exception e) {
+            data.title = "Untitled";
+        }
+
+        //Get Content
+        try {
+            data.content = article.findElement(contentLocator).getText();
+        } catch (Exception e) {
+            data.content = "N/A";
+        }
+
+        //Get the link to the full article
+        try {
+            data.url = article.findElement(linkLocator).getAttribute("href");
+        } catch (Exception e) {
+            data.url = null;
+        }
+
+        //Get Image url, the download happens in its own stage
+        try {
+            checkpoint.imageUrl = article.findElement(imageLocator).getAttribute("src");
+        } catch (Exception e) {
+            checkpoint.imageUrl = null;
+        }
+
+        Thread.sleep(articlePauseMillis);
+        return null;
+    }
 }
@@ -0,0 +1,27 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+// Front page of any El País section (Internacional, Economía, ...), read for its headlines
+public class SectionPage {
+    private WebDriver driver;
+
+    // Locators
+    private By headlineLocator = By.cssSelector("article h2");
+
+    public SectionPage(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public List<String> readHeadlines(int limit) {
+        return driver.findElements(headlineLocator).stream()
+                .map(WebElement::getText)
+                .filter(text -> !text.isBlank())
+                .limit(limit)
+                .toList();
+    }
+}
@@ -1,13 +1,31 @@
 package tests;
 
 import models.ArticleData;
+import models.PageTiming;
+import models.SessionCheckpoint;
+import models.SessionCheckpoint.ArticleStage;
+import models.SessionCheckpoint.Phase;
 import models.SessionResult;
 import pages.HomePage;
 import pages.OpinionPage;
+import pages.SectionPage;
+import utils.ArticleStreamSink;
+import utils.ArticleWindowReader;
+import utils.BrowserStateStore;
+import utils.CheckpointStore;
+import utils.FingerprintUtil;
 import utils.PdfReportUtil;
+import utils.PerformanceUtil;
+import utils.RetryUtil;
 import utils.ScraperUtils;
+import utils.ScreenshotService;
+import utils.SessionContext;
+import utils.ShardStore;
+import utils.TabPool;
+import utils.TimeoutPolicy;
 
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.ITestResult;
@@ -17,9 +35,12 @@ import org.yaml.snakeyaml.Yaml;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.time.Duration;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ElPaisScrapingTest {
@@ -38,6 +59,52 @@ public class ElPaisScrapingTest {
     private static final String API_URL  = CONFIG.getProperty("rapidapi.url");
     private static final int ARTICLE_COUNT = 5;
 
+    private static final ScreenshotService SCREENSHOTS = new ScreenshotService(CONFIG);
+
+    // Checkpoints and retries: a failed step is retried on its own, a lost session is resumed with a fresh driver
+    private static final CheckpointStore CHECKPOINTS = new CheckpointStore(CONFIG.getProperty("checkpoint.dir", "checkpoints"));
+    private static final boolean RESUME = Boolean.parseBoolean(System.getProperty("checkpoint.resume", CONFIG.getProperty("checkpoint.resume", "false")));
+    private static final int RETRY_ATTEMPTS = Integer.parseInt(CONFIG.getProperty("retry.attempts", "3"));
+    private static final int SESSION_RESTARTS = Integer.parseInt(CONFIG.getProperty("retry.sessionRestarts", "1"));
+
+    // Verification mode: only the primary session scrapes everything, the others compare fingerprints with it
+    private static final boolean VERIFY_MODE = Boolean.parseBoolean(CONFIG.getProperty("fingerprint.verify", "false"));
+    private static final String PRIMARY_BROWSER = CONFIG.getProperty("fingerprint.primary");
+    private static final Duration FINGERPRINT_WAIT = Duration.ofSeconds(Integer.parseInt(CONFIG.getProperty("fingerprint.waitSeconds", "30")));
+    private static volatile String primarySession;
+    private static volatile boolean primaryInShard;
+
+    // Wait timeouts learned per browser/device profile from earlier runs
+    private static final TimeoutPolicy TIMEOUTS = new TimeoutPolicy(CONFIG);
+
+    // Consent cookies/localStorage saved by the first session that accepts the banner, reused by the rest
+    private static final BrowserStateStore BROWSER_STATE = new BrowserStateStore(CONFIG);
+
+    // Tab mode: article detail pages and extra sections are loaded several at a time in tabs of the same session
+    private static final boolean TABS_ENABLED = Boolean.parseBoolean(CONFIG.getProperty("tabs.enabled", "false"));
+    private static final int TAB_COUNT = Integer.parseInt(CONFIG.getProperty("tabs.max", "4"));
+    private static final Duration TAB_PAGE_TIMEOUT = Duration.ofSeconds(Integer.parseInt(CONFIG.getProperty("tabs.pageTimeoutSeconds", "30")));
+    private static final int DETAIL_PARAGRAPHS = Integer.parseInt(CONFIG.getProperty("tabs.detailParagraphs", "3"));
+    private static final List<String> EXTRA_SECTIONS = Arrays.stream(CONFIG.getProperty("tabs.sections", "").split("\\s*,\\s*"))
+            .filter(s -> !s.isEmpty())
+            .toList();
+
+    // Windowed mode: stream thousands of articles through infinite scroll/pagination instead of the first ARTICLE_COUNT
+    private static final boolean WINDOWED = Boolean.parseBoolean(CONFIG.getProperty("window.enabled", "false"));
+    private static final int WINDOW_TARGET = Integer.parseInt(CONFIG.getProperty("window.target", "1000"));
+    private static final int WINDOW_SIZE = Integer.parseInt(CONFIG.getProperty("window.size", "20"));
+    private static final Duration WINDOW_BUDGET = Duration.ofSeconds(Long.parseLong(CONFIG.getProperty("window.budgetSeconds", "0")));
+    private static final long WINDOW_STEP_MILLIS = Long.parseLong(CONFIG.getProperty("window.stepMillis", "100"));
+    private static final long WINDOW_SETTLE_MILLIS = Long.parseLong(CONFIG.getProperty("window.settleMillis", "800"));
+    private static final Duration WINDOW_LOAD_MORE = Duration.ofSeconds(Long.parseLong(CONFIG.getProperty("window.loadMoreSeconds", "10")));
+
+    // Sharding: this process runs only every shard.count-th browser of browsers.yml, starting at shard.index (1-based).
+    // Set them with -Dshard.index/-Dshard.count on each CI machine, then merge the shard folders with utils.ShardMerge.
+    private static final int SHARD_INDEX = Integer.parseInt(System.getProperty("shard.index", CONFIG.getProperty("shard.index", "1")));
+    private static final int SHARD_COUNT = Integer.parseInt(System.getProperty("shard.count", CONFIG.getProperty("shard.count", "1")));
+    private static final String SHARD_DIR = System.getProperty("shard.dir", CONFIG.getProperty("shard.dir", "shards"));
+    private static final Map<String, Integer> MATRIX_INDEX = new ConcurrentHashMap<>();
+
     private final ThreadLocal<WebDriver> driverThread = new ThreadLocal<>();
     private static final List<SessionResult> GLOBAL_RESULTS = Collections.synchronizedList(new ArrayList<>());
     private static final Logger LOGGER = Logger.getLogger(ElPaisScrapingTest.class.getName());
@@ -55,49 +122,239 @@ public class ElPaisScrapingTest {
     @BeforeMethod
     public void setUp(Object[] params) throws Exception {
         DesiredCapabilities caps = (DesiredCapabilities) params[0];
-        WebDriver driver = new RemoteWebDriver(new URL(BROWSERSTACK_URL), caps);
-        driverThread.set(driver);
+
+        // A session that completed in an earlier run is rebuilt from its checkpoint, no browser needed
+        if (RESUME) {
+            SessionCheckpoint saved = CHECKPOINTS.load(sessionNameOf(caps));
+            if (saved != null && saved.phase == Phase.COMPLETE) return;
+        }
+
+        driverThread.set(new RemoteWebDriver(new URL(BROWSERSTACK_URL), caps));
     }
 
     @Test(dataProvider = "browsers")
     public void scrapElPaisOpinion(DesiredCapabilities caps) throws Exception {
-        WebDriver driver = driverThread.get();
+        String sessionName = sessionNameOf(caps);
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> bstackOpts = (Map<String, Object>) caps.getCapability("bstack:options");
-        String sessionName = bstackOpts != null ? (String) bstackOpts.get("sessionName") : "Unknown";
-
-        LOGGER.info(String.format("\n[%s] Starting test", sessionName));
+        // Every log record from this thread (and threads it starts) is tagged with the session
+        SessionContext.set(sessionName);
+        LOGGER.info("Starting test");
 
         String imageDir = "downloads/" + sessionName.replaceAll("[^a-zA-Z0-9]", "_");
         Files.createDirectories(Paths.get(imageDir));
 
-        // 1. Home Page Flow
-        HomePage homePage = new HomePage(driver, sessionName);
-        homePage.navigateToEspana();
-        String screenshotPath = homePage.takeScreenshot(imageDir);
-        homePage.verifySpanishLanguage();
-        homePage.acceptCookies();
-
-        // 2. Navigate to Opinion
-        OpinionPage opinionPage = homePage.goToOpinionPage();
+        SessionCheckpoint checkpoint = CHECKPOINTS.loadOrCreate(sessionName, RESUME);
+        // A resumed primary may not reach fingerprintArticles again, so its saved fingerprints are shared here
+        if (verifying() && isPrimary(sessionName) && checkpoint.fingerprints != null) {
+            FingerprintUtil.publishPrimary(checkpoint.fingerprints);
+        }
 
-        // 3. Scrape Data
-        List<ArticleData> scrapedArticles = opinionPage.scrapeArticles(ARTICLE_COUNT, imageDir, API_URL, API_KEY, API_HOST);
+        for (int restarts = 0; checkpoint.phase != Phase.COMPLETE; restarts++) {
+            try {
+                runSession(driverThread.get(), checkpoint, imageDir, TIMEOUTS.forProfile(profileOf(caps)));
+                break;
+            } catch (WebDriverException e) {
+                if (restarts >= SESSION_RESTARTS) throw e;
+                LOGGER.log(Level.WARNING, "Session failed after phase {0}, resuming with a fresh driver: {1}",
+                        new Object[]{checkpoint.phase, e.getMessage()});
+                restartDriver(caps);
+            }
+        }
 
         // 4. Save Session Results
+        // Articles whose image download failed are reported without the image until a resumed run gets it
+        List<ArticleData> scrapedArticles = checkpoint.articles.stream()
+                .filter(a -> a.stage == ArticleStage.TRANSLATED || a.stage == ArticleStage.DOWNLOADED)
+                .map(a -> a.data)
+                .toList();
+
         SessionResult result = new SessionResult();
         result.sessionName = sessionName;
-        result.homePageScreenshot = screenshotPath;
+        result.matrixIndex = MATRIX_INDEX.getOrDefault(sessionName, 0);
+        result.homePageScreenshot = checkpoint.homePageScreenshot;
+        result.pageTimings = checkpoint.pageTimings;
+        result.sectionHeadlines = checkpoint.sectionHeadlines;
         result.articles = scrapedArticles;
-        result.wordFreq = ScraperUtils.analyzeWordFrequency(scrapedArticles);
+        // Windowed runs count the words of every streamed article, not just the ones kept for the PDF
+        result.wordFreq = checkpoint.wordFreq != null ? checkpoint.wordFreq : ScraperUtils.analyzeWordFrequency(scrapedArticles);
+        result.streamedArticles = checkpoint.streamedArticles;
+        if (checkpoint.verifiedAgainst != null) {
+            result.verifiedAgainst = checkpoint.verifiedAgainst;
+            result.verifiedArticles = checkpoint.articles.stream()
+                    .filter(a -> a.stage == ArticleStage.VERIFIED)
+                    .map(a -> a.data.index)
+                    .toList();
+            result.verifiedFallback = checkpoint.articles.stream()
+                    .filter(a -> a.stage == ArticleStage.VERIFIED)
+                    .map(a -> a.data)
+                    .toList();
+            result.fingerprintDifferences = checkpoint.fingerprintDifferences;
+        }
 
         GLOBAL_RESULTS.add(result);
-        LOGGER.info(String.format("[%s] Added results to global list.", sessionName));
+        LOGGER.info("Added results to global list.");
+    }
+
+    // Runs whatever is left of the session according to its checkpoint
+    private void runSession(WebDriver driver, SessionCheckpoint checkpoint, String imageDir,
+                            TimeoutPolicy.ProfileWaits waits) throws Exception {
+        HomePage homePage = new HomePage(driver, checkpoint.sessionName, waits).withBrowserState(BROWSER_STATE);
+        OpinionPage opinionPage;
+
+        if (checkpoint.phase == Phase.STARTED) {
+            opinionPage = RetryUtil.withRetries("Home page flow", RETRY_ATTEMPTS, 2000, () -> {
+                // 1. Home Page Flow
+                homePage.navigateToEspana();
+                recordTiming(driver, checkpoint, "España");
+                checkpoint.homePageScreenshot = homePage.takeScreenshot(imageDir, SCREENSHOTS);
+                homePage.verifySpanishLanguage();
+                homePage.acceptCookies();
+
+                // 2. Navigate to Opinion
+                OpinionPage opinion = homePage.goToOpinionPage();
+                recordTiming(driver, checkpoint, "Opinión");
+                return opinion;
+            });
+            checkpoint.phase = Phase.NAVIGATED;
+            CHECKPOINTS.save(checkpoint);
+        } else {
+            opinionPage = RetryUtil.withRetries("Resuming at Opinión", RETRY_ATTEMPTS, 2000, homePage::resumeAtOpinionPage);
+            recordTiming(driver, checkpoint, "Opinión");
+        }
+
+        if (verifying()) {
+            fingerprintArticles(opinionPage, checkpoint);
+        }
+
+        // 3. Scrape Data
+        long unfinished;
+        if (WINDOWED) {
+            unfinished = streamArticles(driver, opinionPage, checkpoint, imageDir);
+        } else {
+            opinionPage.scrapeArticles(ARTICLE_COUNT, imageDir, API_URL, API_KEY, API_HOST, checkpoint, CHECKPOINTS, RETRY_ATTEMPTS);
+            unfinished = checkpoint.articles.stream()
+                    .filter(a -> a.stage != ArticleStage.DOWNLOADED && a.stage != ArticleStage.VERIFIED)
+                    .count();
+        }
+
+        if (TABS_ENABLED) {
+            readInTabs(driver, opinionPage, checkpoint);
+        }
+
+        // Articles that ran out of retries keep the session below COMPLETE, so a resumed run tries them again
+        // (a windowed one streams again from the top)
+        if (unfinished == 0 && !checkpoint.articles.isEmpty()) {
+            checkpoint.phase = Phase.COMPLETE;
+        } else {
+            LOGGER.log(Level.WARNING, "{0} articles incomplete, session left resumable", unfinished);
+        }
+        CHECKPOINTS.save(checkpoint);
+    }
+
+    // Every article goes to <imageDir>/articles.jsonl; the first ARTICLE_COUNT are kept in the checkpoint for the PDF.
+    // There are no per-article checkpoints here, a restarted session streams again from the top.
+    // Returns how many articles were streamed without their translation or image.
+    private int streamArticles(WebDriver driver, OpinionPage opinionPage, SessionCheckpoint checkpoint, String imageDir) throws Exception {
+        ArticleWindowReader reader = new ArticleWindowReader(driver, WINDOW_SIZE, WINDOW_STEP_MILLIS, WINDOW_SETTLE_MILLIS, WINDOW_LOAD_MORE);
+        try (ArticleStreamSink sink = new ArticleStreamSink(Paths.get(imageDir, "articles.jsonl"), ARTICLE_COUNT)) {
+            OpinionPage.StreamResult streamed = opinionPage.streamArticles(WINDOW_TARGET, WINDOW_BUDGET, reader, imageDir, API_URL, API_KEY, API_HOST, sink);
+
+            checkpoint.articles.clear();
+            for (ArticleData article : sink.retained()) {
+                SessionCheckpoint.ArticleCheckpoint saved = checkpoint.article(article.index);
+                saved.data = article;
+                saved.stage = ArticleStage.DOWNLOADED;
+            }
+            checkpoint.wordFreq = sink.wordFrequency();
+            checkpoint.streamedArticles = sink.count();
+            LOGGER.log(Level.INFO, "Streamed {0} articles to {1}", new Object[]{sink.count(), sink.file()});
+            return streamed.incomplete();
+        }
+    }
+
+    // Article detail pages, then the extra sections, each batch loading in parallel tabs
+    private void readInTabs(WebDriver driver, OpinionPage opinionPage, SessionCheckpoint checkpoint) throws Exception {
+        TabPool tabs = new TabPool(driver, TAB_COUNT, TAB_PAGE_TIMEOUT);
+        opinionPage.readArticleDetails(checkpoint, tabs, DETAIL_PARAGRAPHS);
+        CHECKPOINTS.save(checkpoint);
+
+        if (!EXTRA_SECTIONS.isEmpty() && checkpoint.sectionHeadlines == null) {
+            checkpoint.sectionHeadlines = tabs.harvest(EXTRA_SECTIONS, page -> new SectionPage(page).readHeadlines(ARTICLE_COUNT));
+            CHECKPOINTS.save(checkpoint);
+        }
+    }
+
+    // Keeps one timing per page; a retried or resumed navigation replaces the earlier one
+    private static void recordTiming(WebDriver driver, SessionCheckpoint checkpoint, String page) {
+        PageTiming timing = PerformanceUtil.collect(driver, page);
+        if (timing != null) {
+            checkpoint.pageTimings.removeIf(t -> t.page.equals(page));
+            checkpoint.pageTimings.add(timing);
+        }
+    }
+
+    // The primary publishes its fingerprints; every other session marks the articles identical to it as VERIFIED,
+    // keeping its own title and snippet of them in case the primary fails to scrape one later
+    private void fingerprintArticles(OpinionPage opinionPage, SessionCheckpoint checkpoint) {
+        if (isPrimary(checkpoint.sessionName)) {
+            if (checkpoint.fingerprints == null) {
+                checkpoint.fingerprints = opinionPage.fingerprintArticles(ARTICLE_COUNT);
+                CHECKPOINTS.save(checkpoint);
+            }
+            FingerprintUtil.publishPrimary(checkpoint.fingerprints);
+            return;
+        }
+        if (checkpoint.fingerprinted) return;
+
+        List<List<String>> mine = opinionPage.fingerprintArticles(ARTICLE_COUNT);
+        List<List<String>> primary = FingerprintUtil.awaitPrimary(FINGERPRINT_WAIT);
+        if (primary != null) {
+            Set<Integer> identical = FingerprintUtil.compare(primary, mine, checkpoint.fingerprintDifferences);
+            for (int index : identical) {
+                SessionCheckpoint.ArticleCheckpoint article = checkpoint.article(index);
+                article.stage = ArticleStage.VERIFIED;
+                article.data.title = FingerprintUtil.title(mine.get(index - 1));
+                article.data.content = FingerprintUtil.snippet(mine.get(index - 1));
+            }
+            checkpoint.verifiedAgainst = primarySession;
+            LOGGER.log(Level.INFO, "{0} of {1} articles identical to {2}",
+                    new Object[]{identical.size(), mine.size(), primarySession});
+            checkpoint.fingerprintDifferences.forEach(d -> LOGGER.log(Level.INFO, "Fingerprint difference: {0}", d));
+        }
+        checkpoint.fingerprinted = true;
+        CHECKPOINTS.save(checkpoint);
+    }
+
+    // The primary has to run in this process for the others to compare against it; shards without it scrape everything.
+    // Windowed runs read far more than the fingerprinted first articles, so they always scrape everything.
+    private static boolean verifying() {
+        return VERIFY_MODE && primaryInShard && !WINDOWED;
+    }
+
+    private static boolean isPrimary(String sessionName) {
+        return sessionName.equals(primarySession);
+    }
+
+    private void restartDriver(DesiredCapabilities caps) throws Exception {
+        WebDriver old = driverThread.get();
+        if (old != null) {
+            try {
+                old.quit();
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Old driver did not quit cleanly: {0}", e.getMessage());
+            }
+        }
+        driverThread.set(new RemoteWebDriver(new URL(BROWSERSTACK_URL), caps));
     }
 
     @AfterMethod
     public void tearDown(ITestResult result) {
+        // Don't leave the other sessions waiting for fingerprints that will never come
+        String sessionName = SessionContext.get();
+        if (verifying() && !result.isSuccess() && sessionName != null && isPrimary(sessionName)) {
+            FingerprintUtil.failPrimary("Primary session failed");
+        }
+
         WebDriver driver = driverThread.get();
         if (driver != null) {
             try {
@@ -112,23 +369,61 @@ public class ElPaisScrapingTest {
                                 status, reason.replace("\"", "'"))
                 );
             } catch (Exception e) {
-                LOGGER.warning("Could not set BrowserStack session status: " + e.getMessage());
+                LOGGER.log(Level.WARNING, "Could not set BrowserStack session status: {0}", e.getMessage());
             } finally {
                 driver.quit();
                 driverThread.remove();
             }
         }
+        SessionContext.clear();
     }
 
     @AfterSuite
     public void generateReport() {
+        // The PDF embeds the screenshots, so they have to be fully encoded first
+        SCREENSHOTS.shutdown();
+        TIMEOUTS.save();
+        if (verifying()) {
+            FingerprintUtil.resolveVerifiedArticles(GLOBAL_RESULTS, primarySession,
+                    title -> ScraperUtils.translateText(title, API_URL, API_KEY, API_HOST));
+        }
         PdfReportUtil.generateMasterPdfReport(GLOBAL_RESULTS);
+
+        if (SHARD_COUNT > 1) {
+            try {
+                ShardStore.write(Paths.get(SHARD_DIR), SHARD_INDEX, SHARD_COUNT, GLOBAL_RESULTS);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to write shard results: {0}", e.getMessage());
+            }
+        }
     }
 
     // --- Helpers for Configuration ---
 
+    @SuppressWarnings("unchecked")
+    private static String sessionNameOf(DesiredCapabilities caps) {
+        Map<String, Object> bstackOpts = (Map<String, Object>) caps.getCapability("bstack:options");
+        return bstackOpts != null ? (String) bstackOpts.get("sessionName") : "Unknown";
+    }
+
+    // Identifies a browser/device profile for the wait history, e.g. "Safari | iPhone 14 | 16"
+    @SuppressWarnings("unchecked")
+    private static String profileOf(DesiredCapabilities caps) {
+        Map<String, Object> bstackOpts = (Map<String, Object>) caps.getCapability("bstack:options");
+        StringBuilder profile = new StringBuilder(String.valueOf(caps.getCapability("browserName")));
+        if (bstackOpts != null) {
+            for (String key : new String[]{"deviceName", "os", "osVersion"}) {
+                if (bstackOpts.get(key) != null) profile.append(" | ").append(bstackOpts.get(key));
+            }
+        }
+        return profile.toString();
+    }
+
     @SuppressWarnings("unchecked")
     private static List<DesiredCapabilities> loadBrowserConfigs() {
+        if (SHARD_COUNT < 1 || SHARD_INDEX < 1 || SHARD_INDEX > SHARD_COUNT) {
+            throw new IllegalArgumentException(String.format("Invalid shard %d of %d, shard.index runs from 1 to shard.count", SHARD_INDEX, SHARD_COUNT));
+        }
         List<DesiredCapabilities> configs = new ArrayList<>();
         try (InputStream is = ElPaisScrapingTest.class
                 .getClassLoader().getResourceAsStream("browsers.yml")) {
@@ -138,7 +433,17 @@ public class ElPaisScrapingTest {
             Map<String, Object> root = yaml.load(is);
             List<Map<String, String>> browsers = (List<Map<String, String>>) root.get("browsers");
 
-            for (Map<String, String> browser : browsers) {
+            for (int position = 0; position < browsers.size(); position++) {
+                Map<String, String> browser = browsers.get(position);
+
+                // The primary for verification mode is fingerprint.primary, or else the first browser.
+                // It is picked from the whole matrix, so every shard agrees on which one it is.
+                if (primarySession == null || browser.get("name").equals(PRIMARY_BROWSER)) {
+                    primarySession = browser.get("sessionName");
+                }
+                if (position % SHARD_COUNT != SHARD_INDEX - 1) continue;
+                MATRIX_INDEX.put(browser.get("sessionName"), position);
+
                 DesiredCapabilities caps = new DesiredCapabilities();
                 Map<String, Object> bstackOptions = new HashMap<>();
 
@@ -165,6 +470,14 @@ public class ElPaisScrapingTest {
         } catch (IOException e) {
             throw new RuntimeException("Failed to load browsers.yml: " + e.getMessage());
         }
+
+        primaryInShard = MATRIX_INDEX.containsKey(primarySession);
+        if (SHARD_COUNT > 1) {
+            LOGGER.log(Level.INFO, "Shard {0} of {1}: running {2} browser(s)", new Object[]{SHARD_INDEX, SHARD_COUNT, configs.size()});
+            if (VERIFY_MODE && !primaryInShard) {
+                LOGGER.log(Level.WARNING, "Primary session {0} runs in another shard, fingerprint verification is off here", primarySession);
+            }
+        }
         return configs;
     }
 
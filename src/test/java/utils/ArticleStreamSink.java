@@ -0,0 +1,77 @@
+package utils;
+
+import models.ArticleData;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Where windowed scraping sends its articles. Each article is appended to a JSON-lines file as it
+ * arrives and counted into the word frequencies; only the first few are kept in memory, for the
+ * PDF. Memory use is the same for fifty articles or five thousand.
+ */
+public class ArticleStreamSink implements Consumer<ArticleData>, Closeable {
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+    private final BufferedWriter writer;
+    private final int retain;
+    private final List<ArticleData> retained = new ArrayList<>();
+    private final Map<String, Integer> wordFrequency = new HashMap<>();
+    private int count;
+
+    public ArticleStreamSink(Path file, int retain) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.retain = retain;
+    }
+
+    @Override
+    public void accept(ArticleData article) {
+        try {
+            writer.write(GSON.toJson(article));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write to " + file, e);
+        }
+        ScraperUtils.analyzeWordFrequency(List.of(article)).forEach((word, n) -> wordFrequency.merge(word, n, Integer::sum));
+        if (retained.size() < retain) {
+            retained.add(article);
+        }
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public List<ArticleData> retained() {
+        return retained;
+    }
+
+    public Map<String, Integer> wordFrequency() {
+        return wordFrequency;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,311 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * java.util.logging handler that hands records to a single background writer through a
+ * lock-free ring buffer. Logging threads only claim a slot and store the record; message
+ * formatting, JSON encoding and file I/O all happen on the writer thread.
+ *
+ * Output is one JSON object per line, written to log/sessions/<session>.jsonl based on the
+ * SessionContext of the thread that logged the record. Records without a session go to main.jsonl.
+ *
+ * The writer sleeps until a record arrives. When the buffer stays full, a logging thread waits a
+ * bounded time and then drops its record (the writer logs how many were dropped); once the writer
+ * has stopped, records go straight to the console instead, so logging never blocks for good.
+ */
+public final class AsyncLogHandler extends Handler {
+    private static final String NO_SESSION = "main";
+    private static final long FULL_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path logDir;
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLong head = new AtomicLong();   // next slot to claim (producers)
+    private final AtomicLong tail = new AtomicLong();   // next slot to drain (writer thread)
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread writerThread;
+    private final SimpleFormatter messageFormatter = new SimpleFormatter();
+    private final PrintStream console;
+    private final Level consoleLevel;
+    private final Map<String, BufferedWriter> writers = new HashMap<>();
+    private boolean dirty;
+    private volatile boolean closed;
+
+    private static volatile AsyncLogHandler installed;
+
+    // A record plus the session it was logged under, captured on the logging thread
+    private record Event(LogRecord record, String session) {}
+
+    private AsyncLogHandler(String logDir, int capacity, Level consoleLevel) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.logDir = Paths.get(logDir);
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.console = System.out;
+        this.consoleLevel = consoleLevel;
+    }
+
+    // Started outside the constructor, so the writer never sees a half-built handler
+    private void start() {
+        writerThread = new Thread(this::drainLoop, "async-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Replaces the root logger's handlers with a single AsyncLogHandler. Safe to call more than
+     * once; only the first call installs.
+     */
+    public static synchronized AsyncLogHandler install(String logDir, int capacity) {
+        if (installed == null) {
+            Logger root = LogManager.getLogManager().getLogger("");
+            for (Handler h : root.getHandlers()) {
+                root.removeHandler(h);
+            }
+            installed = new AsyncLogHandler(logDir, capacity, Level.INFO);
+            installed.start();
+            root.addHandler(installed);
+        }
+        return installed;
+    }
+
+    public static synchronized void uninstall() {
+        if (installed != null) {
+            LogManager.getLogManager().getLogger("").removeHandler(installed);
+            installed.close();
+            installed = null;
+        }
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        Event event = new Event(record, SessionContext.get());
+
+        long seq;
+        long waitingSince = 0;
+        while (true) {
+            seq = head.get();
+            if (seq - tail.get() > mask) {
+                // Buffer full: wait a while for the writer, but never for one that has stopped
+                if (closed || !writerThread.isAlive()) {
+                    printToConsole(event, formatMessage(event.record()));
+                    return;
+                }
+                if (waitingSince == 0) {
+                    waitingSince = System.nanoTime();
+                } else if (System.nanoTime() - waitingSince > FULL_WAIT_NANOS) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(10_000);
+                continue;
+            }
+            if (head.compareAndSet(seq, seq + 1)) {
+                break;
+            }
+        }
+        slots.set((int) (seq & mask), event);
+        LockSupport.unpark(writerThread);
+    }
+
+    // Blocks until everything published so far has been written
+    @Override
+    public void flush() {
+        long target = head.get();
+        while (tail.get() < target && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            long seq = tail.get();
+            int index = (int) (seq & mask);
+            Event event = slots.get(index);
+
+            if (event == null) {
+                // A producer may have claimed this slot but not stored into it yet; it unparks us once it has
+                if (closed && head.get() == seq) {
+                    break;
+                }
+                if (dirty) {
+                    flushWriters();
+                }
+                LockSupport.park(this);
+                continue;
+            }
+
+            slots.set(index, null);
+            tail.lazySet(seq + 1);
+            try {
+                write(event);
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    write(new Event(new LogRecord(Level.WARNING, lost + " log records dropped while the log buffer was full"), null));
+                }
+            } catch (RuntimeException e) {
+                // One bad record must not stop the writer, every logging thread depends on it
+                reportError("Failed to write log record", e, ErrorManager.GENERIC_FAILURE);
+            }
+        }
+        closeWriters();
+    }
+
+    private void write(Event event) {
+        LogRecord record = event.record();
+        String session = event.session() != null ? event.session() : NO_SESSION;
+        String message = formatMessage(record);
+
+        try {
+            BufferedWriter writer = writerFor(session);
+            writer.write(toJson(record, session, message));
+            writer.newLine();
+            dirty = true;
+        } catch (IOException e) {
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        }
+
+        printToConsole(event, message);
+    }
+
+    private String formatMessage(LogRecord record) {
+        try {
+            return messageFormatter.formatMessage(record);
+        } catch (RuntimeException e) {
+            return String.valueOf(record.getMessage());
+        }
+    }
+
+    private void printToConsole(Event event, String message) {
+        LogRecord record = event.record();
+        if (record.getLevel().intValue() >= consoleLevel.intValue()) {
+            String prefix = event.session() != null ? "[" + event.session() + "] " : "";
+            console.println(prefix + message);
+            if (record.getThrown() != null) {
+                record.getThrown().printStackTrace(console);
+            }
+        }
+    }
+
+    private BufferedWriter writerFor(String session) throws IOException {
+        BufferedWriter writer = writers.get(session);
+        if (writer == null) {
+            Files.createDirectories(logDir);
+            String fileName = session.replaceAll("[^a-zA-Z0-9]", "_") + ".jsonl";
+            writer = Files.newBufferedWriter(logDir.resolve(fileName), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            writers.put(session, writer);
+        }
+        return writer;
+    }
+
+    private void flushWriters() {
+        dirty = false;
+        for (BufferedWriter writer : writers.values()) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                reportError("Failed to flush log file", e, ErrorManager.FLUSH_FAILURE);
+            }
+        }
+    }
+
+    private void closeWriters() {
+        for (BufferedWriter writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                reportError("Failed to close log file", e, ErrorManager.CLOSE_FAILURE);
+            }
+        }
+        writers.clear();
+    }
+
+    private static String toJson(LogRecord record, String session, String message) {
+        StringBuilder sb = new StringBuilder(160 + message.length());
+        sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.getMillis())).append('"');
+        sb.append(",\"level\":\"").append(record.getLevel().getName()).append('"');
+        sb.append(",\"session\":");
+        appendString(sb, session);
+        sb.append(",\"logger\":");
+        appendString(sb, record.getLoggerName());
+        sb.append(",\"thread\":").append(record.getLongThreadID());
+        sb.append(",\"msg\":");
+        appendString(sb, message);
+        if (record.getThrown() != null) {
+            sb.append(",\"error\":");
+            appendString(sb, record.getThrown().toString());
+        }
+        return sb.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,187 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves the cookie-consent state (Didomi cookies and localStorage entries) after the first session
+ * that accepts the banner, and puts it back into later sessions and runs before the first real page
+ * load, so they skip the consent banner altogether.
+ *
+ * Cookies can only be set for the domain the browser is on, so restoring first opens a tiny
+ * same-site URL (robots.txt), sets the state there, and only then loads the real page.
+ */
+public class BrowserStateStore {
+    private static final Logger LOGGER = Logger.getLogger(BrowserStateStore.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path file;
+    private final String landingUrl;
+    private final List<String> keyPatterns;
+    private final Duration maxAge;
+    private volatile Snapshot snapshot;
+
+    // What gets stored on disk
+    private static class Snapshot {
+        long capturedAt;
+        List<StoredCookie> cookies = new ArrayList<>();
+        Map<String, String> localStorage = new LinkedHashMap<>();
+    }
+
+    private static class StoredCookie {
+        String name, value, domain, path, sameSite;
+        Long expiry;
+        boolean secure, httpOnly;
+    }
+
+    public BrowserStateStore(Properties config) {
+        this.file = Paths.get(config.getProperty("state.snapshot", "state/consent-snapshot.json"));
+        this.landingUrl = config.getProperty("state.landingUrl", "https://elpais.com/robots.txt");
+        this.keyPatterns = Arrays.asList(config.getProperty("state.keys", "didomi,euconsent").toLowerCase().split("\\s*,\\s*"));
+        this.maxAge = Duration.ofDays(Long.parseLong(config.getProperty("state.maxAgeDays", "30")));
+        this.snapshot = load();
+    }
+
+    public boolean hasSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * Puts the saved consent state into a fresh session. Returns false when there is nothing
+     * to restore, in which case the caller has to go through the banner as usual.
+     */
+    public boolean restore(WebDriver driver) {
+        Snapshot state = snapshot;
+        if (state == null) return false;
+
+        try {
+            driver.get(landingUrl);
+            long now = System.currentTimeMillis();
+            for (StoredCookie c : state.cookies) {
+                if (c.expiry != null && c.expiry < now) continue;
+                try {
+                    driver.manage().addCookie(new Cookie.Builder(c.name, c.value)
+                            .domain(c.domain)
+                            .path(c.path)
+                            .expiresOn(c.expiry != null ? new Date(c.expiry) : null)
+                            .isSecure(c.secure)
+                            .isHttpOnly(c.httpOnly)
+                            .sameSite(c.sameSite)
+                            .build());
+                } catch (Exception e) {
+                    // Some browsers (Safari) are picky about cookie attributes; the others still help
+                    LOGGER.log(Level.FINE, "Could not restore cookie {0}: {1}", new Object[]{c.name, e.getMessage()});
+                }
+            }
+            if (!state.localStorage.isEmpty()) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "var items = arguments[0]; for (var k in items) { window.localStorage.setItem(k, items[k]); }",
+                        state.localStorage);
+            }
+            LOGGER.log(Level.INFO, "Restored consent state ({0} cookies, {1} storage entries)",
+                    new Object[]{state.cookies.size(), state.localStorage.size()});
+            return true;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to restore consent state: {0}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Called right after a session accepted the banner; only the first capture is kept
+    public void captureIfMissing(WebDriver driver) {
+        if (snapshot != null) return;
+        synchronized (this) {
+            if (snapshot != null) return;
+            try {
+                Snapshot state = new Snapshot();
+                state.capturedAt = System.currentTimeMillis();
+
+                for (Cookie cookie : driver.manage().getCookies()) {
+                    if (!isConsentKey(cookie.getName())) continue;
+                    StoredCookie c = new StoredCookie();
+                    c.name = cookie.getName();
+                    c.value = cookie.getValue();
+                    c.domain = cookie.getDomain();
+                    c.path = cookie.getPath();
+                    c.expiry = cookie.getExpiry() != null ? cookie.getExpiry().getTime() : null;
+                    c.secure = cookie.isSecure();
+                    c.httpOnly = cookie.isHttpOnly();
+                    c.sameSite = cookie.getSameSite();
+                    state.cookies.add(c);
+                }
+
+                Object storage = ((JavascriptExecutor) driver).executeScript(
+                        "var out = {}; for (var i = 0; i < localStorage.length; i++) {" +
+                        "  var k = localStorage.key(i); out[k] = localStorage.getItem(k); } return out;");
+                if (storage instanceof Map<?, ?> items) {
+                    items.forEach((k, v) -> {
+                        if (isConsentKey(String.valueOf(k))) state.localStorage.put(String.valueOf(k), String.valueOf(v));
+                    });
+                }
+
+                if (state.cookies.isEmpty() && state.localStorage.isEmpty()) {
+                    LOGGER.warning("No consent cookies or storage found to snapshot");
+                    return;
+                }
+                save(state);
+                snapshot = state;
+                LOGGER.log(Level.INFO, "Saved consent state snapshot to {0}", file);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to capture consent state: {0}", e.getMessage());
+            }
+        }
+    }
+
+    // Drops a snapshot that turned out not to work (the banner showed up anyway)
+    public synchronized void invalidate() {
+        snapshot = null;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to delete {0}: {1}", new Object[]{file, e.getMessage()});
+        }
+    }
+
+    private boolean isConsentKey(String name) {
+        String lower = name.toLowerCase();
+        return keyPatterns.stream().anyMatch(lower::contains);
+    }
+
+    private Snapshot load() {
+        if (!Files.exists(file)) return null;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Snapshot state = GSON.fromJson(reader, Snapshot.class);
+            if (state == null || System.currentTimeMillis() - state.capturedAt > maxAge.toMillis()) {
+                LOGGER.info("Consent state snapshot is too old, a new one will be taken");
+                return null;
+            }
+            return state;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable consent snapshot {0}: {1}", new Object[]{file, e.getMessage()});
+            return null;
+        }
+    }
+
+    private void save(Snapshot state) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            GSON.toJson(state, writer);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
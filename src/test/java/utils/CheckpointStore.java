@@ -0,0 +1,78 @@
+package utils;
+
+import models.SessionCheckpoint;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one JSON checkpoint file per session so a failed session can pick up where it stopped,
+ * either with a fresh driver in the same run or in a later run started with checkpoint.resume=true.
+ * Files are written to a temp file and moved into place, so a crash never leaves half a checkpoint.
+ */
+public class CheckpointStore {
+    private static final Logger LOGGER = Logger.getLogger(CheckpointStore.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path dir;
+
+    public CheckpointStore(String dir) {
+        this.dir = dir == null ? null : Paths.get(dir);
+    }
+
+    // A store that keeps checkpoints in memory only, for runs that don't need to survive a crash
+    public static CheckpointStore disabled() {
+        return new CheckpointStore(null);
+    }
+
+    public SessionCheckpoint load(String sessionName) {
+        if (dir == null) return null;
+        Path file = fileFor(sessionName);
+        if (!Files.exists(file)) return null;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, SessionCheckpoint.class);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable checkpoint {0}: {1}", new Object[]{file, e.getMessage()});
+            return null;
+        }
+    }
+
+    // Loads the saved checkpoint when resuming, otherwise starts from scratch
+    public SessionCheckpoint loadOrCreate(String sessionName, boolean resume) {
+        SessionCheckpoint checkpoint = resume ? load(sessionName) : null;
+        if (checkpoint == null) {
+            checkpoint = new SessionCheckpoint();
+            checkpoint.sessionName = sessionName;
+        } else {
+            LOGGER.log(Level.INFO, "Resuming from checkpoint at phase {0}", checkpoint.phase);
+        }
+        return checkpoint;
+    }
+
+    public void save(SessionCheckpoint checkpoint) {
+        if (dir == null) return;
+        Path file = fileFor(checkpoint.sessionName);
+        try {
+            Files.createDirectories(dir);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(checkpoint, writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save checkpoint {0}: {1}", new Object[]{file, e.getMessage()});
+        }
+    }
+
+    private Path fileFor(String sessionName) {
+        return dir.resolve(sessionName.replaceAll("[^a-zA-Z0-9]", "_") + ".json");
+    }
+}
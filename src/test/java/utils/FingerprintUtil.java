@@ -0,0 +1,163 @@
+package utils;
+
+import models.ArticleData;
+import models.SessionResult;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.function.UnaryOperator;
+import java.util.logging.Logger;
+
+/**
+ * Cross-browser verification mode. The primary session scrapes everything; every other session
+ * only hashes the title, snippet and image of each article inside the browser (one script call)
+ * and compares the hashes with the primary's. Only articles that differ are scraped in full, and
+ * the matching ones are copied over from the primary when the report is built.
+ */
+public class FingerprintUtil {
+    private static final Logger LOGGER = Logger.getLogger(FingerprintUtil.class.getName());
+    private static final String[] FIELDS = {"title", "snippet", "image"};
+
+    // Returns [titleHash, snippetHash, imageHash, title, snippet] for each of the first arguments[0] articles.
+    // Text is whitespace-normalized and image query strings (per-device resize params) are dropped. The plain
+    // title and snippet come along for free, so a session keeps its own copy of the articles it skips.
+    private static final String FINGERPRINT_SCRIPT =
+            "function h(s) {" +
+            "  s = (s || '').replace(/\\s+/g, ' ').trim();" +
+            "  var h1 = 0xdeadbeef, h2 = 0x41c6ce57;" +
+            "  for (var i = 0; i < s.length; i++) {" +
+            "    var c = s.charCodeAt(i);" +
+            "    h1 = Math.imul(h1 ^ c, 2654435761);" +
+            "    h2 = Math.imul(h2 ^ c, 1597334677);" +
+            "  }" +
+            "  h1 = Math.imul(h1 ^ (h1 >>> 16), 2246822507) ^ Math.imul(h2 ^ (h2 >>> 13), 3266489909);" +
+            "  h2 = Math.imul(h2 ^ (h2 >>> 16), 2246822507) ^ Math.imul(h1 ^ (h1 >>> 13), 3266489909);" +
+            "  return (h2 >>> 0).toString(16) + (h1 >>> 0).toString(16);" +
+            "}" +
+            "function text(n) { return n ? n.textContent.replace(/\\s+/g, ' ').trim() : ''; }" +
+            "var articles = document.getElementsByTagName('article');" +
+            "var out = [];" +
+            "for (var i = 0; i < Math.min(arguments[0], articles.length); i++) {" +
+            "  var a = articles[i];" +
+            "  var t = a.querySelector('h2'), p = a.querySelector('p'), img = a.querySelector('img');" +
+            "  var src = img ? (img.getAttribute('src') || img.getAttribute('data-src') || '') : '';" +
+            "  out.push([h(t && t.textContent), h(p && p.textContent), h(src.split('?')[0]), text(t), text(p)]);" +
+            "}" +
+            "return out;";
+
+    private static final CompletableFuture<List<List<String>>> PRIMARY = new CompletableFuture<>();
+
+    public static List<List<String>> capture(WebDriver driver, int count) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(FINGERPRINT_SCRIPT, count);
+        List<List<String>> fingerprints = new ArrayList<>();
+        if (raw instanceof List<?> rows) {
+            for (Object row : rows) {
+                List<String> fields = new ArrayList<>();
+                for (Object field : (List<?>) row) fields.add(String.valueOf(field));
+                fingerprints.add(fields);
+            }
+        }
+        return fingerprints;
+    }
+
+    public static void publishPrimary(List<List<String>> fingerprints) {
+        PRIMARY.complete(fingerprints);
+    }
+
+    public static String title(List<String> fingerprint) {
+        return fingerprint.size() > 3 ? fingerprint.get(3) : "";
+    }
+
+    public static String snippet(List<String> fingerprint) {
+        return fingerprint.size() > 4 ? fingerprint.get(4) : "";
+    }
+
+    // Lets waiting sessions fall back to a full scrape when the primary can't deliver
+    public static void failPrimary(String reason) {
+        PRIMARY.completeExceptionally(new IllegalStateException(reason));
+    }
+
+    public static List<List<String>> awaitPrimary(Duration timeout) {
+        try {
+            return PRIMARY.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Primary fingerprint not available, doing a full scrape: {0}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Compares this session's fingerprints with the primary's. Returns the 1-based indices of
+     * identical articles; every difference is added to {@code differences} as a readable line.
+     */
+    public static Set<Integer> compare(List<List<String>> primary, List<List<String>> mine, List<String> differences) {
+        Set<Integer> identical = new TreeSet<>();
+        for (int i = 0; i < Math.max(primary.size(), mine.size()); i++) {
+            if (i >= mine.size()) {
+                differences.add(String.format("Article %d: missing in this browser", i + 1));
+                continue;
+            }
+            if (i >= primary.size()) {
+                differences.add(String.format("Article %d: missing in primary", i + 1));
+                continue;
+            }
+            List<String> changed = new ArrayList<>();
+            for (int f = 0; f < FIELDS.length; f++) {
+                if (!primary.get(i).get(f).equals(mine.get(i).get(f))) changed.add(FIELDS[f]);
+            }
+            if (changed.isEmpty()) {
+                identical.add(i + 1);
+            } else {
+                differences.add(String.format("Article %d: %s differs", i + 1, String.join(", ", changed)));
+            }
+        }
+        return identical;
+    }
+
+    /**
+     * Fills in the articles that secondary sessions verified instead of scraping, using the primary's data.
+     * An article the primary failed to scrape falls back to the secondary's own title and snippet, with the
+     * title translated here; it has no image.
+     */
+    public static void resolveVerifiedArticles(List<SessionResult> results, String primarySession, UnaryOperator<String> translate) {
+        SessionResult primary = results.stream()
+                .filter(r -> r.sessionName.equals(primarySession))
+                .findFirst().orElse(null);
+
+        for (SessionResult result : results) {
+            if (result.verifiedArticles == null || result.verifiedArticles.isEmpty()) continue;
+
+            List<ArticleData> merged = new ArrayList<>(result.articles);
+            for (int index : result.verifiedArticles) {
+                ArticleData source = primary == null ? null : primary.articles.stream()
+                        .filter(a -> a.index == index).findFirst().orElse(null);
+                if (source == null) {
+                    LOGGER.log(Level.WARNING, "[{0}] Article {1} matched the primary, but the primary has no data for it, using this browser''s own",
+                            new Object[]{result.sessionName, index});
+                    source = ownCopy(result, index, translate);
+                    if (source == null) continue;
+                }
+                merged.add(source);
+            }
+            merged.sort(Comparator.comparingInt(a -> a.index));
+            result.articles = merged;
+            result.wordFreq = ScraperUtils.analyzeWordFrequency(merged);
+        }
+    }
+
+    private static ArticleData ownCopy(SessionResult result, int index, UnaryOperator<String> translate) {
+        ArticleData own = result.verifiedFallback == null ? null : result.verifiedFallback.stream()
+                .filter(a -> a.index == index).findFirst().orElse(null);
+        if (own == null || own.title == null || own.title.isEmpty()) return null;
+        if (own.translatedTitle == null) {
+            own.translatedTitle = translate.apply(own.title);
+        }
+        return own;
+    }
+}
@@ -1,6 +1,7 @@
 package utils;
 
 import models.ArticleData;
+import models.PageTiming;
 import models.SessionResult;
 
 import com.lowagie.text.Document;
@@ -9,22 +10,30 @@ import com.lowagie.text.Font;
 import com.lowagie.text.FontFactory;
 import com.lowagie.text.Image;
 import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 
 import java.io.FileOutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class PdfReportUtil {
     private static final Logger LOGGER = Logger.getLogger(PdfReportUtil.class.getName());
 
     public static void generateMasterPdfReport(List<SessionResult> globalResults) {
+        generateMasterPdfReport(globalResults, "ElPais_Master_Report.pdf");
+    }
+
+    public static void generateMasterPdfReport(List<SessionResult> globalResults, String outputFile) {
         LOGGER.info("=== Generating Master PDF Report ===");
 
         try (Document document = new Document()) {
-            PdfWriter.getInstance(document, new FileOutputStream("ElPais_Master_Report.pdf"));
+            PdfWriter.getInstance(document, new FileOutputStream(outputFile));
             document.open();
 
             // Add Title
@@ -34,6 +43,8 @@ public class PdfReportUtil {
             document.add(new Paragraph("Total Sessions: " + globalResults.size()));
             document.add(new Paragraph("\n\n"));
 
+            addPerformanceComparison(document, globalResults);
+
             
             for (SessionResult session : globalResults) {
                 // Section Header
@@ -56,6 +67,11 @@ public class PdfReportUtil {
                     }
                 }
 
+                if (session.streamedArticles > 0) {
+                    document.add(new Paragraph(String.format("%d articles streamed (first %d shown, the rest are in articles.jsonl)",
+                            session.streamedArticles, session.articles.size()), FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10)));
+                }
+
                 // Add Articles
                 for (ArticleData article : session.articles) {
                     Paragraph a = new Paragraph("Article " + article.index + ": " + article.title);
@@ -68,6 +84,12 @@ public class PdfReportUtil {
                     content.setSpacingBefore(5);
                     document.add(content);
 
+                    if (article.body != null && !article.body.isEmpty()) {
+                        Paragraph body = new Paragraph("Full Article: " + article.body, FontFactory.getFont(FontFactory.HELVETICA, 9));
+                        body.setSpacingBefore(5);
+                        document.add(body);
+                    }
+
                     // Image Availability Check
                     String imageText = (article.imagePath != null)
                             ? "Image Source/Path: " + article.imagePath
@@ -78,6 +100,35 @@ public class PdfReportUtil {
                     document.add(imagePara);
                 }
 
+                // Add Headlines of the Extra Sections (tab mode only)
+                if (session.sectionHeadlines != null && !session.sectionHeadlines.isEmpty()) {
+                    Paragraph sectionsHeader = new Paragraph("Other Sections:", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12));
+                    sectionsHeader.setSpacingBefore(20);
+                    document.add(sectionsHeader);
+                    for (Map.Entry<String, List<String>> section : session.sectionHeadlines.entrySet()) {
+                        document.add(new Paragraph("  " + section.getKey(), FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10)));
+                        for (String headline : section.getValue()) {
+                            document.add(new Paragraph("    • " + headline, FontFactory.getFont(FontFactory.HELVETICA, 10)));
+                        }
+                    }
+                }
+
+                // Add Cross-Browser Verification (fingerprint mode only)
+                if (session.verifiedAgainst != null) {
+                    Paragraph verifyHeader = new Paragraph("Cross-Browser Verification against " + session.verifiedAgainst + ":", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12));
+                    verifyHeader.setSpacingBefore(20);
+                    document.add(verifyHeader);
+                    document.add(new Paragraph(String.format("  %d article(s) identical to the primary session", session.verifiedArticles.size()), FontFactory.getFont(FontFactory.HELVETICA, 10)));
+
+                    if (session.fingerprintDifferences.isEmpty()) {
+                        document.add(new Paragraph("  No differences found.", FontFactory.getFont(FontFactory.HELVETICA, 10)));
+                    } else {
+                        for (String difference : session.fingerprintDifferences) {
+                            document.add(new Paragraph("  • " + difference, FontFactory.getFont(FontFactory.HELVETICA, 10)));
+                        }
+                    }
+                }
+
                 // Add Word Frequency Analysis
                 Paragraph freqHeader = new Paragraph("Word Frequency Analysis (Repeated > 2 times):", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12));
                 freqHeader.setSpacingBefore(20);
@@ -100,9 +151,59 @@ public class PdfReportUtil {
             }
 
         } catch (Exception e) {
-            LOGGER.severe("Failed to generate PDF: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Failed to generate PDF: {0}", e.getMessage());
         } finally {
-            LOGGER.info("PDF Report Generated Successfully: ElPais_Master_Report.pdf");
+            LOGGER.log(Level.INFO, "PDF Report Generated Successfully: {0}", outputFile);
         }
     }
+
+    // One row per session and page, so load speed and payload can be compared across the matrix
+    private static void addPerformanceComparison(Document document, List<SessionResult> globalResults) {
+        if (globalResults.stream().allMatch(r -> r.pageTimings == null || r.pageTimings.isEmpty())) return;
+
+        document.add(new Paragraph("Page Performance Across Browsers", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14)));
+
+        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+        Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+        PdfPTable table = new PdfPTable(new float[]{3.2f, 1.3f, 1f, 1f, 1f, 1f, 1f, 1.2f});
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10);
+        table.setHeaderRows(1);
+        for (String header : new String[]{"Session", "Page", "TTFB (ms)", "DCL (ms)", "Load (ms)", "LCP (ms)", "Requests", "Transfer (KB)"}) {
+            table.addCell(new PdfPCell(new Phrase(header, headerFont)));
+        }
+
+        for (SessionResult session : globalResults) {
+            if (session.pageTimings == null) continue;
+            for (PageTiming t : session.pageTimings) {
+                table.addCell(new PdfPCell(new Phrase(session.sessionName, cellFont)));
+                table.addCell(new PdfPCell(new Phrase(t.page, cellFont)));
+                table.addCell(numberCell(Math.round(t.ttfbMs), cellFont));
+                table.addCell(numberCell(Math.round(t.domContentLoadedMs), cellFont));
+                table.addCell(t.incomplete ? numberCell("n/a", cellFont) : numberCell(Math.round(t.loadMs), cellFont));
+                table.addCell(t.lcpMs != null ? numberCell(Math.round(t.lcpMs), cellFont) : numberCell("n/a", cellFont));
+                String more = t.truncated ? "+" : "";
+                table.addCell(numberCell(t.resourceCount + more, cellFont));
+                table.addCell(numberCell(t.transferBytes / 1024 + more, cellFont));
+            }
+        }
+        document.add(table);
+
+        // Aggregate view: median, fastest and slowest session per page
+        for (Map.Entry<String, String> entry : PerformanceUtil.summarize(globalResults).entrySet()) {
+            document.add(new Paragraph(String.format("  • %s: %s", entry.getKey(), entry.getValue()), FontFactory.getFont(FontFactory.HELVETICA, 10)));
+        }
+        document.add(new Paragraph("Transfer sizes only count same-origin resources and those sent with Timing-Allow-Origin. "
+                + "A + marks a page that filled the browser's resource timing buffer (250 entries), so its counts are a lower bound. "
+                + "n/a load times were still loading when read and are not ranked.",
+                FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 8)));
+        document.newPage();
+    }
+
+    private static PdfPCell numberCell(Object value, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(String.valueOf(value), font));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        return cell;
+    }
 }
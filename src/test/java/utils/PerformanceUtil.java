@@ -0,0 +1,131 @@
+package utils;
+
+import models.PageTiming;
+import models.SessionResult;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads Navigation Timing, Resource Timing and Largest Contentful Paint from the page the browser
+ * is on, so each session also reports how fast the site loaded for it and how much it downloaded.
+ */
+public class PerformanceUtil {
+    private static final Logger LOGGER = Logger.getLogger(PerformanceUtil.class.getName());
+
+    // How long to wait for the load event to finish before reading the timing anyway
+    private static final long LOAD_WAIT_MILLIS = 10_000;
+    // The browser's default resource timing buffer size. It applies per document and the buffer is
+    // already full by the time the page can be read, so a page that reaches it is flagged as truncated.
+    private static final int RESOURCE_BUFFER_SIZE = 250;
+
+    // Waits for loadEventEnd to be set, since timing read right after a click can belong to a page
+    // still loading. LCP is only exposed through a PerformanceObserver; buffered:true replays the
+    // entries already recorded.
+    private static final String TIMING_SCRIPT =
+            "var wait = arguments[0], done = arguments[arguments.length - 1], started = Date.now();" +
+            "function loaded() {" +
+            "  var nav = performance.getEntriesByType('navigation')[0];" +
+            "  return document.readyState === 'complete' && (nav ? nav.loadEventEnd : performance.timing.loadEventEnd) > 0;" +
+            "}" +
+            "function poll() {" +
+            "  if (loaded() || Date.now() - started >= wait) read(); else setTimeout(poll, 100);" +
+            "}" +
+            "function read() {" +
+            "  var nav = performance.getEntriesByType('navigation')[0];" +
+            "  var t = performance.timing;" +
+            "  var out = { url: location.href, complete: loaded(), lcp: null, resources: 0, transfer: 0, encoded: 0 };" +
+            "  if (nav) {" +
+            "    out.ttfb = nav.responseStart; out.dcl = nav.domContentLoadedEventEnd; out.load = nav.loadEventEnd;" +
+            "    out.transfer += nav.transferSize || 0; out.encoded += nav.encodedBodySize || 0;" +
+            "  } else {" +
+            "    out.ttfb = t.responseStart - t.navigationStart;" +
+            "    out.dcl = t.domContentLoadedEventEnd - t.navigationStart;" +
+            "    out.load = Math.max(0, t.loadEventEnd - t.navigationStart);" +
+            "  }" +
+            "  performance.getEntriesByType('resource').forEach(function (r) {" +
+            "    out.resources++; out.transfer += r.transferSize || 0; out.encoded += r.encodedBodySize || 0;" +
+            "  });" +
+            "  try {" +
+            "    new PerformanceObserver(function (list) {" +
+            "      var entries = list.getEntries();" +
+            "      if (entries.length) out.lcp = entries[entries.length - 1].startTime;" +
+            "    }).observe({ type: 'largest-contentful-paint', buffered: true });" +
+            "  } catch (e) {}" +
+            "  setTimeout(function () { done(out); }, 100);" +
+            "}" +
+            "poll();";
+
+    public static PageTiming collect(WebDriver driver, String page) {
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeAsyncScript(TIMING_SCRIPT, LOAD_WAIT_MILLIS);
+            if (!(raw instanceof Map<?, ?> values)) return null;
+
+            PageTiming timing = new PageTiming();
+            timing.page = page;
+            timing.url = String.valueOf(values.get("url"));
+            timing.ttfbMs = number(values.get("ttfb"));
+            timing.domContentLoadedMs = number(values.get("dcl"));
+            timing.loadMs = number(values.get("load"));
+            timing.lcpMs = values.get("lcp") instanceof Number n ? n.doubleValue() : null;
+            timing.resourceCount = (int) number(values.get("resources"));
+            timing.transferBytes = (long) number(values.get("transfer"));
+            timing.encodedBytes = (long) number(values.get("encoded"));
+            timing.incomplete = !Boolean.TRUE.equals(values.get("complete"));
+            timing.truncated = timing.resourceCount >= RESOURCE_BUFFER_SIZE;
+
+            if (timing.incomplete) {
+                LOGGER.log(Level.WARNING, "{0} had not finished loading after {1} ms, its load time is left out of the ranking",
+                        new Object[]{page, LOAD_WAIT_MILLIS});
+            }
+            if (timing.truncated) {
+                LOGGER.log(Level.WARNING, "{0} filled the resource timing buffer, its request and byte counts are incomplete", page);
+            }
+
+            LOGGER.log(Level.INFO, "{0} timing: TTFB {1} ms, load {2} ms, {3} resources, {4} KB transferred",
+                    new Object[]{page, Math.round(timing.ttfbMs), Math.round(timing.loadMs),
+                            timing.resourceCount, timing.transferBytes / 1024});
+            return timing;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not read performance timing for {0}: {1}", new Object[]{page, e.getMessage()});
+            return null;
+        }
+    }
+
+    /**
+     * Per page, the median, fastest and slowest load time across all sessions of the matrix,
+     * e.g. "Opinión" -> "median 2140 ms, fastest Windows Chrome (1210 ms), slowest iPhone Safari (4870 ms)".
+     * Timings read before the page finished loading are not ranked.
+     */
+    public static Map<String, String> summarize(List<SessionResult> results) {
+        Map<String, List<Map.Entry<String, PageTiming>>> byPage = new LinkedHashMap<>();
+        for (SessionResult result : results) {
+            if (result.pageTimings == null) continue;
+            for (PageTiming timing : result.pageTimings) {
+                if (timing.incomplete) continue;
+                byPage.computeIfAbsent(timing.page, p -> new ArrayList<>()).add(Map.entry(result.sessionName, timing));
+            }
+        }
+
+        Map<String, String> summary = new LinkedHashMap<>();
+        byPage.forEach((page, timings) -> {
+            timings.sort(Comparator.comparingDouble(e -> e.getValue().loadMs));
+            Map.Entry<String, PageTiming> fastest = timings.get(0);
+            Map.Entry<String, PageTiming> slowest = timings.get(timings.size() - 1);
+            double median = timings.get(timings.size() / 2).getValue().loadMs;
+            summary.put(page, String.format("median %d ms, fastest %s (%d ms), slowest %s (%d ms)",
+                    Math.round(median),
+                    fastest.getKey(), Math.round(fastest.getValue().loadMs),
+                    slowest.getKey(), Math.round(slowest.getValue().loadMs)));
+        });
+        return summary;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,74 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects how long each phase of a scrape (navigation, extraction, translation, image download)
+ * takes, across all sessions of the run, so percentiles can be reported afterwards. Recording is
+ * off unless the load benchmark turns it on; a normal run only times the steps through here and
+ * keeps no samples, however many articles it scrapes.
+ */
+public class PhaseTimings {
+    private static final Map<String, List<Long>> SAMPLES = new ConcurrentHashMap<>();
+    private static volatile boolean enabled;
+
+    public interface Step<T> {
+        T run() throws Exception;
+    }
+
+    public static <T> T time(String phase, Step<T> step) throws Exception {
+        if (!enabled) return step.run();
+        long start = System.nanoTime();
+        try {
+            return step.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void record(String phase, long nanos) {
+        if (!enabled) return;
+        SAMPLES.computeIfAbsent(phase, k -> Collections.synchronizedList(new ArrayList<>())).add(nanos);
+    }
+
+    public static Set<String> phases() {
+        return new TreeSet<>(SAMPLES.keySet());
+    }
+
+    public static int count(String phase) {
+        List<Long> samples = SAMPLES.get(phase);
+        return samples == null ? 0 : samples.size();
+    }
+
+    // Nearest-rank percentile in milliseconds, e.g. percentileMillis("extract", 99)
+    public static double percentileMillis(String phase, double percentile) {
+        List<Long> samples = SAMPLES.get(phase);
+        if (samples == null || samples.isEmpty()) return 0;
+
+        List<Long> sorted;
+        synchronized (samples) {
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1)) / 1_000_000.0;
+    }
+
+    // Starts recording from scratch
+    public static void enable() {
+        SAMPLES.clear();
+        enabled = true;
+    }
+
+    // Stops recording and drops the samples
+    public static void disable() {
+        enabled = false;
+        SAMPLES.clear();
+    }
+}
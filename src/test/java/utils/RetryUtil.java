@@ -0,0 +1,38 @@
+package utils;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class RetryUtil {
+    private static final Logger LOGGER = Logger.getLogger(RetryUtil.class.getName());
+
+    public interface Step<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Runs the step up to the given number of attempts, waiting a little longer after each failure.
+     * A lost browser session is rethrown at once, since retrying on the same driver can't help.
+     */
+    public static <T> T withRetries(String description, int attempts, long backoffMillis, Step<T> step) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return step.run();
+            } catch (Exception e) {
+                if (isSessionLost(e) || attempt >= attempts) {
+                    throw e;
+                }
+                LOGGER.log(Level.WARNING, "{0} failed (attempt {1}/{2}): {3}",
+                        new Object[]{description, attempt, attempts, e.getMessage()});
+                Thread.sleep(backoffMillis * attempt);
+            }
+        }
+    }
+
+    public static boolean isSessionLost(Throwable e) {
+        return e instanceof NoSuchSessionException || e instanceof UnreachableBrowserException;
+    }
+}
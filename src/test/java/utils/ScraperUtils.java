@@ -6,6 +6,7 @@ import java.net.URI;
 import java.net.http.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ScraperUtils {
@@ -31,7 +32,7 @@ public class ScraperUtils {
                 if (start > 9 && end > start) return body.substring(start, end);
             }
         } catch (Exception e) {
-            LOGGER.warning("Translation failed: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Translation failed: {0}", e.getMessage());
         }
         return text;
     }
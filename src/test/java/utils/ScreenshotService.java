@@ -0,0 +1,180 @@
+package utils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Takes screenshots as raw PNG bytes on the test thread and leaves the slow part (decoding,
+ * downscaling and JPEG/WebP encoding) to a small background pool, so the session can carry on
+ * navigating straight away. Call awaitPending() before anything reads the files.
+ */
+public class ScreenshotService {
+    private static final Logger LOGGER = Logger.getLogger(ScreenshotService.class.getName());
+
+    private final String format;
+    private final float quality;
+    private final int maxWidth;
+    private final int maxHeight;
+    private final boolean fullPage;
+    private final ExecutorService encoder;
+    private final List<Future<?>> pending = new ArrayList<>();
+
+    public ScreenshotService(Properties config) {
+        String requested = config.getProperty("screenshot.format", "jpg").toLowerCase();
+        if (requested.equals("webp") && !ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+            // The JDK has no WebP writer of its own, it needs an ImageIO plugin on the classpath
+            LOGGER.warning("No WebP ImageIO writer available, falling back to JPEG screenshots");
+            requested = "jpg";
+        }
+        this.format = requested.equals("jpeg") ? "jpg" : requested;
+        this.quality = Float.parseFloat(config.getProperty("screenshot.quality", "0.7"));
+        this.maxWidth = Integer.parseInt(config.getProperty("screenshot.maxWidth", "1280"));
+        this.maxHeight = Integer.parseInt(config.getProperty("screenshot.maxHeight", "2400"));
+        this.fullPage = Boolean.parseBoolean(config.getProperty("screenshot.fullPage", "false"));
+
+        int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+        this.encoder = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "screenshot-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Captures the current page and queues it for encoding. Returns the path the encoded image
+     * will be written to (the extension follows the configured format), without waiting for it.
+     */
+    public String capture(WebDriver driver, String imageDir, String baseName) {
+        byte[] png = fullPage ? captureFullPage(driver) : ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        Path target = Paths.get(imageDir, baseName + "." + format);
+
+        Future<?> job = encoder.submit(SessionContext.wrap(() -> {
+            try {
+                encode(png, target);
+                LOGGER.log(Level.FINE, "Screenshot encoded: {0} ({1} bytes from {2} bytes PNG)",
+                        new Object[]{target, Files.size(target), png.length});
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to encode screenshot {0}: {1}", new Object[]{target, e.getMessage()});
+            }
+        }));
+        synchronized (pending) {
+            pending.add(job);
+        }
+        return target.toString();
+    }
+
+    // Waits for every queued screenshot to be written
+    public void awaitPending() {
+        List<Future<?>> jobs;
+        synchronized (pending) {
+            jobs = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Future<?> job : jobs) {
+            try {
+                job.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.WARNING, "Screenshot encoding failed: {0}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    public void shutdown() {
+        awaitPending();
+        encoder.shutdown();
+    }
+
+    // Desktop browsers: grow the window to the document height for one shot, then put it back.
+    // Real mobile devices can't be resized, so they keep the viewport screenshot.
+    private byte[] captureFullPage(WebDriver driver) {
+        Dimension original = null;
+        try {
+            original = driver.manage().window().getSize();
+            Number height = (Number) ((JavascriptExecutor) driver).executeScript(
+                    "return Math.max(document.body.scrollHeight, document.documentElement.scrollHeight);");
+            driver.manage().window().setSize(new Dimension(original.getWidth(), height.intValue()));
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Full page capture not supported, using viewport: {0}", e.getMessage());
+            original = null;
+        }
+        try {
+            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } finally {
+            if (original != null) {
+                driver.manage().window().setSize(original);
+            }
+        }
+    }
+
+    private void encode(byte[] png, Path target) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            throw new IOException("Screenshot is not a readable image");
+        }
+
+        double scale = Math.min(1.0, Math.min((double) maxWidth / source.getWidth(), (double) maxHeight / source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Drawing into an RGB image both downscales and drops the alpha channel JPEG can't store
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = output.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for format " + format);
+        }
+        ImageWriter writer = writers.next();
+        Files.deleteIfExists(target);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(output, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package utils;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the name of the browser session the current thread is working for, so log records
+ * can be tagged without every page object pasting a "[sessionName]" prefix into its messages.
+ * The value is inherited by child threads; use wrap() when handing work to a pooled executor.
+ */
+public class SessionContext {
+    private static final InheritableThreadLocal<String> CURRENT = new InheritableThreadLocal<>();
+
+    public static void set(String sessionName) {
+        CURRENT.set(sessionName);
+    }
+
+    public static String get() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Carries the caller's session over to whichever pool thread ends up running the task
+    public static Runnable wrap(Runnable task) {
+        String session = CURRENT.get();
+        return () -> {
+            String previous = CURRENT.get();
+            CURRENT.set(session);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        String session = CURRENT.get();
+        return () -> {
+            String previous = CURRENT.get();
+            CURRENT.set(session);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
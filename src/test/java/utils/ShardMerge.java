@@ -0,0 +1,127 @@
+package utils;
+
+import models.SessionResult;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Combines the shard folders written by sharded runs (see ShardStore) into one consolidated run:
+ *
+ *   merged/ElPais_Master_Report.pdf   the usual master report, all sessions in browsers.yml order
+ *   merged/word-frequency.txt         word counts of the translated titles across every session
+ *   merged/results.json               all session results in one file
+ *   merged/run-archive-<time>.zip     the three files above plus every shard folder
+ *
+ * Usage: ShardMerge [shard root, default "shards"] [output folder, default "merged"]
+ */
+public class ShardMerge {
+    private static final Logger LOGGER = Logger.getLogger(ShardMerge.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    public static void main(String[] args) throws IOException {
+        Path shardRoot = Paths.get(args.length > 0 ? args[0] : "shards");
+        Path outputDir = Paths.get(args.length > 1 ? args[1] : "merged");
+
+        List<ShardStore.Shard> shards = ShardStore.loadAll(shardRoot);
+        if (shards.isEmpty()) {
+            LOGGER.severe("No shards found under " + shardRoot.toAbsolutePath());
+            System.exit(1);
+        }
+        checkComplete(shards);
+
+        List<SessionResult> sessions = new ArrayList<>();
+        shards.forEach(shard -> sessions.addAll(shard.sessions));
+        sessions.sort(Comparator.comparingInt(s -> s.matrixIndex));
+        LOGGER.log(Level.INFO, "Merging {0} sessions from {1} shards", new Object[]{sessions.size(), shards.size()});
+
+        Files.createDirectories(outputDir);
+        Path pdf = outputDir.resolve("ElPais_Master_Report.pdf");
+        Path words = outputDir.resolve("word-frequency.txt");
+        Path results = outputDir.resolve("results.json");
+
+        PdfReportUtil.generateMasterPdfReport(sessions, pdf.toString());
+        writeWordFrequency(sessions, words);
+        try (Writer writer = Files.newBufferedWriter(results, StandardCharsets.UTF_8)) {
+            GSON.toJson(sessions, writer);
+        }
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+        Path archive = outputDir.resolve("run-archive-" + timestamp + ".zip");
+        writeArchive(archive, List.of(pdf, words, results), shardRoot);
+        LOGGER.log(Level.INFO, "Run archive written to {0}", archive);
+    }
+
+    // A missing shard still merges, but the report would silently lack its browsers, so say so
+    private static void checkComplete(List<ShardStore.Shard> shards) {
+        int count = shards.get(0).count;
+        Set<Integer> present = new TreeSet<>();
+        for (ShardStore.Shard shard : shards) {
+            if (shard.count != count) {
+                LOGGER.log(Level.WARNING, "Shard {0} was run with a shard count of {1}, the others with {2}",
+                        new Object[]{shard.index, shard.count, count});
+            }
+            if (!present.add(shard.index)) {
+                LOGGER.log(Level.WARNING, "Shard {0} found more than once, its sessions appear twice", shard.index);
+            }
+        }
+        for (int i = 1; i <= count; i++) {
+            if (!present.contains(i)) {
+                LOGGER.log(Level.WARNING, "Shard {0} of {1} is missing, its browsers are not in the report", new Object[]{i, count});
+            }
+        }
+    }
+
+    private static void writeWordFrequency(List<SessionResult> sessions, Path file) throws IOException {
+        Map<String, Integer> total = new HashMap<>();
+        for (SessionResult session : sessions) {
+            if (session.wordFreq != null) {
+                session.wordFreq.forEach((word, count) -> total.merge(word, count, Integer::sum));
+            }
+        }
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("=== Word Frequency Across All Sessions ===");
+            writer.println("Sessions: " + sessions.size());
+            writer.println();
+            total.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> writer.println(String.format("%-20s %d", entry.getKey(), entry.getValue())));
+        }
+    }
+
+    private static void writeArchive(Path archive, List<Path> files, Path shardRoot) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (Path file : files) {
+                addEntry(zip, file, file.getFileName().toString());
+            }
+            List<Path> shardFiles;
+            try (Stream<Path> walk = Files.walk(shardRoot)) {
+                shardFiles = walk.filter(Files::isRegularFile).toList();
+            }
+            for (Path file : shardFiles) {
+                addEntry(zip, file, "shards/" + shardRoot.relativize(file).toString().replace('\\', '/'));
+            }
+        }
+    }
+
+    private static void addEntry(ZipOutputStream zip, Path file, String name) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+}
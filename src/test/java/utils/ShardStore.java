@@ -0,0 +1,108 @@
+package utils;
+
+import models.ArticleData;
+import models.SessionResult;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Writes the results of one shard of the browser matrix to its own folder, shards/shard-<i>-of-<n>,
+ * so shards run on different CI machines can be collected and merged into one report (ShardMerge).
+ *
+ * Each folder holds shard.json plus copies of the screenshots and article images it refers to.
+ * Paths inside shard.json are relative to the folder, so it can be moved between machines as is.
+ */
+public class ShardStore {
+    private static final Logger LOGGER = Logger.getLogger(ShardStore.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String RESULTS_FILE = "shard.json";
+    private static final String FILES_DIR = "files";
+
+    // What gets stored on disk for one shard
+    public static class Shard {
+        public int index;
+        public int count;
+        public String generatedAt;
+        public List<SessionResult> sessions = new ArrayList<>();
+    }
+
+    public static Path write(Path root, int index, int count, List<SessionResult> results) throws IOException {
+        Path dir = root.resolve(String.format("shard-%d-of-%d", index, count));
+        Files.createDirectories(dir.resolve(FILES_DIR));
+
+        Shard shard = new Shard();
+        shard.index = index;
+        shard.count = count;
+        shard.generatedAt = LocalDateTime.now().toString();
+        for (SessionResult result : results) {
+            // Work on a copy, the originals still point at this machine's files
+            SessionResult copy = GSON.fromJson(GSON.toJson(result), SessionResult.class);
+            String prefix = result.matrixIndex + "-";
+            copy.homePageScreenshot = copyInto(dir, prefix, copy.homePageScreenshot);
+            for (ArticleData article : copy.articles) {
+                article.imagePath = copyInto(dir, prefix, article.imagePath);
+            }
+            shard.sessions.add(copy);
+        }
+
+        Path file = dir.resolve(RESULTS_FILE);
+        Path tmp = dir.resolve(RESULTS_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            GSON.toJson(shard, writer);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.log(Level.INFO, "Shard {0}/{1} written to {2} ({3} sessions)", new Object[]{index, count, dir, results.size()});
+        return dir;
+    }
+
+    // Every shard folder under root, ordered by shard index, with file paths resolved again
+    public static List<Shard> loadAll(Path root) throws IOException {
+        List<Path> files;
+        try (Stream<Path> found = Files.find(root, 2, (path, attrs) -> path.getFileName().toString().equals(RESULTS_FILE))) {
+            files = found.toList();
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Shard shard = GSON.fromJson(reader, Shard.class);
+                Path dir = file.getParent();
+                for (SessionResult session : shard.sessions) {
+                    session.homePageScreenshot = resolve(dir, session.homePageScreenshot);
+                    for (ArticleData article : session.articles) {
+                        article.imagePath = resolve(dir, article.imagePath);
+                    }
+                }
+                shards.add(shard);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Ignoring unreadable shard {0}: {1}", new Object[]{file, e.getMessage()});
+            }
+        }
+        shards.sort((a, b) -> Integer.compare(a.index, b.index));
+        return shards;
+    }
+
+    private static String copyInto(Path dir, String prefix, String source) throws IOException {
+        if (source == null || !Files.exists(Paths.get(source))) return null;
+        Path target = dir.resolve(FILES_DIR).resolve(prefix + Paths.get(source).getFileName());
+        Files.copy(Paths.get(source), target, StandardCopyOption.REPLACE_EXISTING);
+        return FILES_DIR + "/" + target.getFileName();
+    }
+
+    private static String resolve(Path dir, String relative) {
+        return relative == null ? null : dir.resolve(relative).toString();
+    }
+}
@@ -0,0 +1,167 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads several pages at once inside one browser session by giving each its own tab. All tabs
+ * start navigating straight away; the driver then goes round the open tabs and reads each page as
+ * soon as it is ready, closing the tab and opening the next URL in its place. One paid BrowserStack
+ * session gets through several pages in the time one would take, without using another session
+ * from the parallel quota.
+ *
+ * Browsers that can't open tabs (some real mobile devices) fall back to loading the pages one
+ * after the other in the current tab, which is then sent back to where it was.
+ */
+public class TabPool {
+    private static final Logger LOGGER = Logger.getLogger(TabPool.class.getName());
+    private static final long POLL_MILLIS = 200;
+
+    private final WebDriver driver;
+    private final int maxTabs;
+    private final Duration pageTimeout;
+
+    @FunctionalInterface
+    public interface Harvester<T> {
+        T harvest(WebDriver driver) throws Exception;
+    }
+
+    // A tab that is still loading its page
+    private record OpenTab(String url, long openedAt) {}
+
+    public TabPool(WebDriver driver, int maxTabs, Duration pageTimeout) {
+        this.driver = driver;
+        this.maxTabs = Math.max(1, maxTabs);
+        this.pageTimeout = pageTimeout;
+    }
+
+    /**
+     * Loads every URL and runs the harvester on it. Results are keyed by URL in the order given;
+     * pages that failed or didn't load within the timeout are left out. The driver is back on the
+     * original tab when this returns.
+     */
+    public <T> Map<String, T> harvest(List<String> urls, Harvester<T> harvester) {
+        Map<String, T> results = new LinkedHashMap<>();
+        if (urls.isEmpty()) return results;
+
+        String home = driver.getWindowHandle();
+        Deque<String> queue = new ArrayDeque<>(urls);
+        Map<String, OpenTab> open = new LinkedHashMap<>();
+        // After the first tab that fails to open, no more are tried; the rest load one at a time once the open tabs are done
+        boolean tabsWork = true;
+        try {
+            while (!queue.isEmpty() || !open.isEmpty()) {
+                while (tabsWork && open.size() < maxTabs && !queue.isEmpty()) {
+                    String handle = openTab(queue.peek(), home);
+                    if (handle == null) {
+                        tabsWork = false;
+                        break;
+                    }
+                    open.put(handle, new OpenTab(queue.poll(), System.nanoTime()));
+                }
+                if (open.isEmpty()) {
+                    driver.switchTo().window(home);
+                    harvestSequentially(queue, harvester, results);
+                    break;
+                }
+
+                boolean progressed = false;
+                for (Iterator<Map.Entry<String, OpenTab>> it = open.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, OpenTab> entry = it.next();
+                    OpenTab tab = entry.getValue();
+                    driver.switchTo().window(entry.getKey());
+
+                    if (isReady()) {
+                        try {
+                            results.put(tab.url(), harvester.harvest(driver));
+                        } catch (Exception e) {
+                            if (RetryUtil.isSessionLost(e)) throw (RuntimeException) e;
+                            LOGGER.log(Level.WARNING, "Failed to read {0}: {1}", new Object[]{tab.url(), e.getMessage()});
+                        }
+                    } else if (System.nanoTime() - tab.openedAt() < pageTimeout.toNanos()) {
+                        continue;
+                    } else {
+                        LOGGER.log(Level.WARNING, "Gave up on {0} after {1} s", new Object[]{tab.url(), pageTimeout.toSeconds()});
+                    }
+                    driver.close();
+                    it.remove();
+                    progressed = true;
+                }
+
+                if (!progressed) {
+                    Thread.sleep(POLL_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (String handle : open.keySet()) {
+                try {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "Could not close tab: {0}", e.getMessage());
+                }
+            }
+            driver.switchTo().window(home);
+        }
+        LOGGER.log(Level.INFO, "Read {0} of {1} pages in tabs", new Object[]{results.size(), urls.size()});
+        return results;
+    }
+
+    // Opens a tab and starts loading the URL without waiting for it. Returns null when tabs aren't supported,
+    // after closing the tab if it did open and switching back to the home tab.
+    private String openTab(String url, String home) {
+        String handle = null;
+        try {
+            driver.switchTo().newWindow(WindowType.TAB);
+            handle = driver.getWindowHandle();
+            // Unlike driver.get(), assigning the location from a script returns before the page has loaded
+            ((JavascriptExecutor) driver).executeScript("window.location.assign(arguments[0]);", url);
+            return handle;
+        } catch (Exception e) {
+            if (RetryUtil.isSessionLost(e)) throw e;
+            LOGGER.log(Level.INFO, "Browser cannot open tabs, loading pages one at a time: {0}", e.getMessage());
+            if (handle != null) {
+                try {
+                    driver.close();
+                } catch (Exception closeFailed) {
+                    LOGGER.log(Level.FINE, "Could not close tab: {0}", closeFailed.getMessage());
+                }
+            }
+            driver.switchTo().window(home);
+            return null;
+        }
+    }
+
+    // A new tab starts on about:blank, which reports itself as loaded, so that page is not ready yet
+    private boolean isReady() {
+        Object ready = ((JavascriptExecutor) driver).executeScript(
+                "return location.href !== 'about:blank' && document.readyState !== 'loading';");
+        return Boolean.TRUE.equals(ready);
+    }
+
+    private <T> void harvestSequentially(Deque<String> queue, Harvester<T> harvester, Map<String, T> results) {
+        String original = driver.getCurrentUrl();
+        try {
+            while (!queue.isEmpty()) {
+                String url = queue.poll();
+                try {
+                    driver.get(url);
+                    results.put(url, harvester.harvest(driver));
+                } catch (Exception e) {
+                    if (RetryUtil.isSessionLost(e)) throw (RuntimeException) e;
+                    LOGGER.log(Level.WARNING, "Failed to read {0}: {1}", new Object[]{url, e.getMessage()});
+                }
+            }
+        } finally {
+            driver.get(original);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Derives explicit wait timeouts from how long each wait actually took in earlier runs, per
+ * browser/device profile and per wait point. Fast desktop browsers end up with short timeouts
+ * (so failures show up quickly) while slow real devices keep their headroom.
+ *
+ * Timeout = percentile of the recorded waits x safety margin, kept between the floor and the
+ * ceiling the caller passes in (the old fixed timeout). Until a wait point has enough samples
+ * the ceiling is used. A wait that times out is recorded at its full timeout, so the policy
+ * backs off again when a profile gets slower.
+ */
+public class TimeoutPolicy {
+    private static final Logger LOGGER = Logger.getLogger(TimeoutPolicy.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, Map<String, List<Long>>>>() {}.getType();
+
+    private final Path historyFile;
+    private final double percentile;
+    private final double margin;
+    private final Duration floor;
+    private final int minSamples;
+    private final int maxSamples;
+
+    // profile -> wait point -> most recent wait durations in ms
+    private final Map<String, Map<String, List<Long>>> history = new ConcurrentHashMap<>();
+
+    public TimeoutPolicy(Properties config) {
+        this.historyFile = Paths.get(config.getProperty("timeouts.history", "timeouts/latency-history.json"));
+        this.percentile = Double.parseDouble(config.getProperty("timeouts.percentile", "95"));
+        this.margin = Double.parseDouble(config.getProperty("timeouts.margin", "2.0"));
+        this.floor = Duration.ofMillis(Long.parseLong(config.getProperty("timeouts.floorMillis", "1000")));
+        this.minSamples = Integer.parseInt(config.getProperty("timeouts.minSamples", "5"));
+        this.maxSamples = Integer.parseInt(config.getProperty("timeouts.maxSamples", "50"));
+        load();
+    }
+
+    public ProfileWaits forProfile(String profile) {
+        return new ProfileWaits(profile);
+    }
+
+    public Duration timeoutFor(String profile, String waitPoint, Duration ceiling) {
+        List<Long> samples = samples(profile, waitPoint);
+        List<Long> sorted;
+        synchronized (samples) {
+            if (samples.size() < minSamples) return ceiling;
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        long derived = (long) (sorted.get(Math.max(0, rank - 1)) * margin);
+
+        Duration timeout = Duration.ofMillis(derived);
+        if (timeout.compareTo(floor) < 0) return floor;
+        if (timeout.compareTo(ceiling) > 0) return ceiling;
+        return timeout;
+    }
+
+    public void record(String profile, String waitPoint, Duration observed) {
+        List<Long> samples = samples(profile, waitPoint);
+        synchronized (samples) {
+            samples.add(observed.toMillis());
+            if (samples.size() > maxSamples) {
+                samples.remove(0);
+            }
+        }
+    }
+
+    public synchronized void save() {
+        try {
+            if (historyFile.getParent() != null) Files.createDirectories(historyFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(historyFile, StandardCharsets.UTF_8)) {
+                GSON.toJson(history, HISTORY_TYPE, writer);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save wait history {0}: {1}", new Object[]{historyFile, e.getMessage()});
+        }
+    }
+
+    private List<Long> samples(String profile, String waitPoint) {
+        return history.computeIfAbsent(profile, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(waitPoint, w -> Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    private void load() {
+        if (!Files.exists(historyFile)) return;
+        try (Reader reader = Files.newBufferedReader(historyFile, StandardCharsets.UTF_8)) {
+            Map<String, Map<String, List<Long>>> saved = GSON.fromJson(reader, HISTORY_TYPE);
+            if (saved == null) return;
+            saved.forEach((profile, points) -> points.forEach((point, values) -> samples(profile, point).addAll(values)));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable wait history {0}: {1}", new Object[]{historyFile, e.getMessage()});
+        }
+    }
+
+    /**
+     * Explicit waits for one browser/device profile. Every wait is timed and recorded, so the
+     * next run can tighten or relax the timeout for that wait point.
+     */
+    public class ProfileWaits {
+        private final String profile;
+
+        private ProfileWaits(String profile) {
+            this.profile = profile;
+        }
+
+        public <T> T until(WebDriver driver, String waitPoint, Duration ceiling, ExpectedCondition<T> condition) {
+            Duration timeout = timeoutFor(profile, waitPoint, ceiling);
+            long start = System.nanoTime();
+            try {
+                T value = new WebDriverWait(driver, timeout).until(condition);
+                record(profile, waitPoint, Duration.ofNanos(System.nanoTime() - start));
+                return value;
+            } catch (TimeoutException e) {
+                record(profile, waitPoint, timeout);
+                throw e;
+            }
+        }
+    }
+}